@@ -0,0 +1,216 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mesures de performance du plateau, de la génération de coups, de
+ * l'évaluation et de la recherche sur des positions d'ouverture, de milieu
+ * et de fin de partie.
+ *
+ * Usage: java Benchmarks [filtre]
+ * Chaque mesure affiche les opérations par seconde (moyenne de plusieurs
+ * itérations et leur écart type relatif) et les octets alloués par
+ * opération (thread courant). Chaque mesure tourne dans sa propre JVM
+ * (java Benchmarks -run nom): le profil du JIT d'une mesure ne dépend pas
+ * des opérations mesurées avant elle. Les recherches à profondeur fixe
+ * n'utilisent que des positions hors de portée du solveur; le solveur a sa
+ * propre mesure (solve.endgame).
+ */
+public class Benchmarks {
+    private static final int POSITIONS_PER_PHASE = 64;
+    private static final long WARMUP_MILLIS = 1000;
+    private static final long MEASURE_MILLIS = 1000;
+    private static final int MEASURE_ITERATIONS = 5;
+
+    // Empêche le JIT d'éliminer les calculs mesurés
+    private static volatile long sink;
+
+    // Une opération mesurée sur une position
+    private interface Operation {
+        long run(Board board, int player);
+    }
+
+    private static final class Benchmark {
+        final String name;
+        final List<Board> positions;
+        final Operation operation;
+        final int batch;
+
+        Benchmark(String name, List<Board> positions, Operation operation) {
+            this(name, positions, operation, 64);
+        }
+
+        // batch: opérations entre deux lectures de l'horloge
+        Benchmark(String name, List<Board> positions, Operation operation, int batch) {
+            this.name = name;
+            this.positions = positions;
+            this.operation = operation;
+            this.batch = batch;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        addPhase(benchmarks, "opening", Positions.opening(POSITIONS_PER_PHASE), 6);
+        addPhase(benchmarks, "middlegame", Positions.middlegame(POSITIONS_PER_PHASE), 6);
+        addPhase(benchmarks, "endgame", Positions.endgame(POSITIONS_PER_PHASE), 8);
+        addSolver(benchmarks, Positions.solvable(POSITIONS_PER_PHASE));
+
+        // JVM fille: une seule mesure
+        if (args.length > 1 && args[0].equals("-run")) {
+            Log.setLevel(Log.Level.OFF);
+            for (Benchmark benchmark : benchmarks) {
+                if (benchmark.name.equals(args[1])) {
+                    measure(benchmark);
+                }
+            }
+            return;
+        }
+
+        String filter = args.length > 0 ? args[0] : "";
+        System.out.printf("%-32s %15s %8s %12s %14s%n", "Benchmark", "ops/s", "error", "ns/op", "bytes/op");
+        for (Benchmark benchmark : benchmarks) {
+            if (benchmark.name.contains(filter)) {
+                fork(benchmark.name);
+            }
+        }
+    }
+
+    // Lance une mesure dans une nouvelle JVM (mêmes options et classpath)
+    private static void fork(String name) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Benchmarks.class.getName());
+        command.add("-run");
+        command.add(name);
+
+        int exitCode = new ProcessBuilder(command).inheritIO().start().waitFor();
+        if (exitCode != 0) {
+            System.out.println(name + " failed (exit code " + exitCode + ")");
+        }
+    }
+
+    private static void addPhase(List<Benchmark> benchmarks, String phase, List<Board> positions, int searchDepth) {
+        int[] moves = new int[81];
+
+        benchmarks.add(new Benchmark("makeMove." + phase, positions, (board, player) -> {
+            int count = MoveGenerator.generateMoves(board, moves);
+            long sum = 0;
+            for (int i = 0; i < count; i++) {
+                board.playMove(moves[i], player);
+                sum += board.getNextLocalBoard();
+                board.unmakeMove();
+            }
+            return sum;
+        }));
+
+        benchmarks.add(new Benchmark("checkGameStatus." + phase, positions,
+                (board, player) -> board.checkGameStatus()));
+
+        benchmarks.add(new Benchmark("generateMoves." + phase, positions,
+                (board, player) -> MoveGenerator.generateMoves(board, moves)));
+
+        benchmarks.add(new Benchmark("generateMoveList." + phase, positions,
+                (board, player) -> MoveGenerator.generateMoves(board).size()));
+
+        benchmarks.add(new Benchmark("evaluate." + phase, positions,
+                (board, player) -> Evaluator.evaluate(board, player)));
+
+        benchmarks.add(new Benchmark("evaluateIncremental." + phase, positions,
+                (board, player) -> Evaluator.evaluateIncremental(board, player)));
+
+        // Recherche à profondeur fixe, un thread, table vidée entre deux positions
+        // (positions que SearchEngine ne confie pas au solveur)
+        List<Board> searchPositions = new ArrayList<>();
+        for (Board board : positions) {
+            if (!EndgameSolver.applies(board) && searchPositions.size() < 8) {
+                searchPositions.add(board);
+            }
+        }
+        SearchEngine engine = new SearchEngine(new SearchConfig(searchDepth, Long.MAX_VALUE / 4, 4,
+                TranspositionTable.Replacement.DEPTH_PREFERRED, 1));
+        SearchLimits limits = new SearchLimits(Long.MAX_VALUE / 4, searchDepth);
+        benchmarks.add(new Benchmark("search" + searchDepth + "." + phase, searchPositions, (board, player) -> {
+            engine.clear();
+            return engine.search(board, player, limits).getNodes();
+        }, 1));
+    }
+
+    // Résolution exacte des petites fins de partie, table vidée entre deux positions
+    private static void addSolver(List<Benchmark> benchmarks, List<Board> positions) {
+        SearchEngine engine = new SearchEngine(new SearchConfig(EndgameSolver.THRESHOLD, Long.MAX_VALUE / 4, 4,
+                TranspositionTable.Replacement.DEPTH_PREFERRED, 1));
+        SearchLimits limits = SearchLimits.time(Long.MAX_VALUE / 4);
+        benchmarks.add(new Benchmark("solve.endgame", positions.subList(0, 8), (board, player) -> {
+            engine.clear();
+            return engine.search(board, player, limits).getNodes();
+        }, 1));
+    }
+
+    private static void measure(Benchmark benchmark) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        runFor(benchmark, WARMUP_MILLIS);
+
+        // Débit de chaque itération, puis moyenne et écart type relatif
+        double[] rates = new double[MEASURE_ITERATIONS];
+        long operations = 0;
+        long elapsed = 0;
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            long iterationOperations = runFor(benchmark, MEASURE_MILLIS);
+            long iterationElapsed = System.nanoTime() - start;
+
+            rates[i] = iterationOperations * 1e9 / iterationElapsed;
+            operations += iterationOperations;
+            elapsed += iterationElapsed;
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        double mean = 0;
+        for (double rate : rates) {
+            mean += rate / MEASURE_ITERATIONS;
+        }
+        double variance = 0;
+        for (double rate : rates) {
+            variance += (rate - mean) * (rate - mean) / (MEASURE_ITERATIONS - 1);
+        }
+
+        System.out.printf("%-32s %15.1f %7.1f%% %12.1f %14.1f%n", benchmark.name, mean,
+                100 * Math.sqrt(variance) / mean, (double) elapsed / operations, (double) allocated / operations);
+    }
+
+    // Exécute l'opération sur les positions en boucle et retourne le nombre d'opérations
+    private static long runFor(Benchmark benchmark, long millis) {
+        List<Board> positions = new ArrayList<>();
+        int[] players = new int[benchmark.positions.size()];
+        for (int i = 0; i < players.length; i++) {
+            Board board = benchmark.positions.get(i);
+            positions.add(new Board(board));
+            players[i] = Positions.sideToMove(board);
+        }
+
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        long operations = 0;
+        long result = 0;
+        int index = 0;
+
+        while (System.nanoTime() < deadline) {
+            // Opérations par lots pour ne pas mesurer l'horloge
+            for (int i = 0; i < benchmark.batch; i++) {
+                result += benchmark.operation.run(positions.get(index), players[index]);
+                index = (index + 1) % players.length;
+            }
+            operations += benchmark.batch;
+        }
+
+        sink = result;
+        return operations;
+    }
+}
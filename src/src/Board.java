@@ -1,56 +1,130 @@
 /**
  * Plateau de jeu Ultimate Tic-Tac-Toe
+ *
+ * Représentation par bitboards: chaque plateau local est un masque de 9 bits
+ * par joueur (bit = ligneLocale * 3 + colonneLocale) et l'état global est
+ * tenu par trois masques de 9 bits (plateaux gagnés par X, par O, nuls).
  */
 public class Board {
-    // Plateau 9x9: 0 (vide), 2 (O), 4 (X)
-    private int[][] board;
+    // Masque d'un plateau local complet
+    static final int FULL_MASK = 0x1FF;
+
+    // Les 8 alignements gagnants d'une grille 3x3
+    static final int[] LINE_MASKS = {
+            0x007, 0x038, 0x1C0, // Lignes
+            0x049, 0x092, 0x124, // Colonnes
+            0x111, 0x054         // Diagonales
+    };
+
+    // WINNING[masque] vrai si le masque contient un alignement
+    static final boolean[] WINNING = new boolean[512];
+
+    // Plateau local et bit de chaque case globale (index = ligne * 9 + colonne)
+    static final int[] CELL_LOCAL_BOARD = new int[81];
+    static final int[] CELL_BIT = new int[81];
+
+    // Case globale pour (plateau local, bit)
+    static final int[][] LOCAL_CELLS = new int[9][9];
+
+    static {
+        for (int mask = 0; mask < 512; mask++) {
+            for (int line : LINE_MASKS) {
+                if ((mask & line) == line) {
+                    WINNING[mask] = true;
+                    break;
+                }
+            }
+        }
+
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                int cell = row * 9 + col;
+                int localBoard = (row / 3) * 3 + col / 3;
+                int bit = (row % 3) * 3 + col % 3;
+                CELL_LOCAL_BOARD[cell] = localBoard;
+                CELL_BIT[cell] = bit;
+                LOCAL_CELLS[localBoard][bit] = cell;
+            }
+        }
+    }
+
+    // Cases occupées par X (4) et O (2), un masque par plateau local
+    private final int[] xCells;
+    private final int[] oCells;
+
+    // Plateaux locaux gagnés par X, par O, et nuls
+    private int xWon;
+    private int oWon;
+    private int drawn;
 
     // Plateau local pour prochain tour (-1 si choix libre)
     private int nextLocalBoard;
 
     // État des plateaux locaux: 0 (ouvert), 4 (X gagne), 2 (O gagne), 1 (nul)
-    private int[] localBoardStatus;
+    private final int[] localBoardStatus;
+
+    // Somme des scores des plateaux locaux ouverts, du point de vue de X et de O
+    private int xLocalScore;
+    private int oLocalScore;
+
+    // Clé Zobrist (cases, trait et plateau imposé)
+    private long hash;
+
+    // Pile d'annulation: case jouée et plateau imposé avant le coup
+    private final int[] undoStack;
+    private int undoSize;
 
     public Board() {
-        board = new int[9][9];
+        xCells = new int[9];
+        oCells = new int[9];
         localBoardStatus = new int[9];
+        undoStack = new int[81];
         nextLocalBoard = -1;
+        hash = Zobrist.NEXT_BOARD[0];
+        computeLocalScores();
     }
 
     public Board(int[][] board, int nextLocalBoard) {
-        this.board = new int[9][9];
+        this();
         for (int i = 0; i < 9; i++) {
             for (int j = 0; j < 9; j++) {
-                this.board[i][j] = board[i][j];
+                setCell(i * 9 + j, board[i][j]);
             }
         }
 
         this.nextLocalBoard = nextLocalBoard;
-        this.localBoardStatus = new int[9];
         updateLocalBoardStatuses();
+        computeHash();
+        computeLocalScores();
     }
 
     // Constructeur par copie
     public Board(Board other) {
-        this.board = new int[9][9];
-        for (int i = 0; i < 9; i++) {
-            for (int j = 0; j < 9; j++) {
-                this.board[i][j] = other.board[i][j];
-            }
-        }
-
+        this.xCells = other.xCells.clone();
+        this.oCells = other.oCells.clone();
+        this.xWon = other.xWon;
+        this.oWon = other.oWon;
+        this.drawn = other.drawn;
         this.nextLocalBoard = other.nextLocalBoard;
-        this.localBoardStatus = new int[9];
-        for (int i = 0; i < 9; i++) {
-            this.localBoardStatus[i] = other.localBoardStatus[i];
-        }
+        this.localBoardStatus = other.localBoardStatus.clone();
+        this.undoStack = other.undoStack.clone();
+        this.undoSize = other.undoSize;
+        this.hash = other.hash;
+        this.xLocalScore = other.xLocalScore;
+        this.oLocalScore = other.oLocalScore;
     }
 
     // Initialise depuis tableau 1D (reçu du serveur)
     public void initializeBoard(int[] boardValues) {
+        for (int i = 0; i < 9; i++) {
+            xCells[i] = 0;
+            oCells[i] = 0;
+        }
+        undoSize = 0;
+
         int x = 0, y = 0;
         for (int i = 0; i < boardValues.length; i++) {
-            board[x][y] = boardValues[i];
+            setCell(x * 9 + y, boardValues[i]);
             x++;
             if (x == 9) {
                 x = 0;
@@ -58,6 +132,8 @@ public class Board {
             }
         }
         updateLocalBoardStatuses();
+        computeHash();
+        computeLocalScores();
     }
 
     // Joue un coup
@@ -67,167 +143,269 @@ public class Board {
             return false;
         }
 
+        playMove(globalRow * 9 + globalCol, player);
+        return true;
+    }
+
+    // Joue un coup légal sans validation (index de case = ligne * 9 + colonne)
+    public void playMove(int cell, int player) {
+        int localBoard = CELL_LOCAL_BOARD[cell];
+        int bit = CELL_BIT[cell];
+        undoStack[undoSize++] = cell | ((nextLocalBoard + 1) << 8);
+        hash ^= Zobrist.cellKey(cell, player) ^ Zobrist.SIDE_TO_MOVE ^ Zobrist.NEXT_BOARD[nextLocalBoard + 1];
+        removeLocalScore(localBoard);
+
         // Make the move
-        board[globalRow][globalCol] = player;
+        int cells;
+        if (player == 4) {
+            cells = xCells[localBoard] |= 1 << bit;
+        } else {
+            cells = oCells[localBoard] |= 1 << bit;
+        }
 
-        // Update the local board statuses
-        updateLocalBoardStatuses();
+        // Only the touched local board can change status
+        if (WINNING[cells]) {
+            localBoardStatus[localBoard] = player;
+            if (player == 4) {
+                xWon |= 1 << localBoard;
+            } else {
+                oWon |= 1 << localBoard;
+            }
+        } else if ((xCells[localBoard] | oCells[localBoard]) == FULL_MASK) {
+            localBoardStatus[localBoard] = 1;
+            drawn |= 1 << localBoard;
+        } else {
+            addLocalScore(localBoard);
+        }
 
         // Update the next local board (where the opponent must play)
-        int localRow = globalRow % 3;
-        int localCol = globalCol % 3;
-        int nextBoard = localRow * 3 + localCol;
-
         // If the next board is already won or full, the opponent can play anywhere
-        if (localBoardStatus[nextBoard] != 0) {
+        if (localBoardStatus[bit] != 0) {
             nextLocalBoard = -1;
         } else {
-            nextLocalBoard = nextBoard;
+            nextLocalBoard = bit;
+        }
+        hash ^= Zobrist.NEXT_BOARD[nextLocalBoard + 1];
+    }
+
+    // Annule le dernier coup joué
+    public void unmakeMove() {
+        int entry = undoStack[--undoSize];
+        int cell = entry & 0xFF;
+        int localBoard = CELL_LOCAL_BOARD[cell];
+        int clear = ~(1 << CELL_BIT[cell]);
+        int player = (xCells[localBoard] & ~clear) != 0 ? 4 : 2;
+
+        if (localBoardStatus[localBoard] == 0) {
+            removeLocalScore(localBoard);
         }
 
-        return true;
+        xCells[localBoard] &= clear;
+        oCells[localBoard] &= clear;
+
+        // Le coup a été joué dans un plateau ouvert
+        if (localBoardStatus[localBoard] != 0) {
+            localBoardStatus[localBoard] = 0;
+            xWon &= ~(1 << localBoard);
+            oWon &= ~(1 << localBoard);
+            drawn &= ~(1 << localBoard);
+        }
+        addLocalScore(localBoard);
+
+        hash ^= Zobrist.NEXT_BOARD[nextLocalBoard + 1];
+        nextLocalBoard = (entry >> 8) - 1;
+        hash ^= Zobrist.cellKey(cell, player) ^ Zobrist.SIDE_TO_MOVE ^ Zobrist.NEXT_BOARD[nextLocalBoard + 1];
     }
 
     // Vérifie si coup valide
     public boolean isValidMove(int globalRow, int globalCol) {
+        int cell = globalRow * 9 + globalCol;
+        int localBoard = CELL_LOCAL_BOARD[cell];
+
         // Check if the cell is empty
-        if (board[globalRow][globalCol] != 0) {
+        if (((xCells[localBoard] | oCells[localBoard]) & (1 << CELL_BIT[cell])) != 0) {
             return false;
         }
 
         // Check if the move is in the correct local board
-        if (nextLocalBoard != -1) {
-            int localBoardRow = globalRow / 3;
-            int localBoardCol = globalCol / 3;
-            int localBoard = localBoardRow * 3 + localBoardCol;
-
-            if (localBoard != nextLocalBoard) {
-                return false;
-            }
+        if (nextLocalBoard != -1 && localBoard != nextLocalBoard) {
+            return false;
         }
 
         // Check if the local board is already won or full
-        int localBoardRow = globalRow / 3;
-        int localBoardCol = globalCol / 3;
-        int localBoard = localBoardRow * 3 + localBoardCol;
-
         return localBoardStatus[localBoard] == 0;
     }
 
-    // Mise à jour des états des plateaux locaux
-    private void updateLocalBoardStatuses() {
-        for (int i = 0; i < 9; i++) {
-            int row = (i / 3) * 3;
-            int col = (i % 3) * 3;
-
-            localBoardStatus[i] = checkLocalBoardStatus(row, col);
+    // Place une pièce sans mettre à jour les états
+    private void setCell(int cell, int value) {
+        int localBoard = CELL_LOCAL_BOARD[cell];
+        int bit = 1 << CELL_BIT[cell];
+        if (value == 4) {
+            xCells[localBoard] |= bit;
+        } else if (value == 2) {
+            oCells[localBoard] |= bit;
         }
     }
 
-    // Vérifie l'état d'un plateau local
-    private int checkLocalBoardStatus(int startRow, int startCol) {
-        // Check rows
-        for (int i = 0; i < 3; i++) {
-            if (board[startRow + i][startCol] != 0 &&
-                    board[startRow + i][startCol] == board[startRow + i][startCol + 1] &&
-                    board[startRow + i][startCol] == board[startRow + i][startCol + 2]) {
-                return board[startRow + i][startCol];
+    // Contribution d'un plateau local ouvert à l'évaluation incrémentale
+    private void addLocalScore(int localBoard) {
+        xLocalScore += Evaluator.localScore(localBoard, xCells[localBoard], oCells[localBoard]);
+        oLocalScore += Evaluator.localScore(localBoard, oCells[localBoard], xCells[localBoard]);
+    }
+
+    private void removeLocalScore(int localBoard) {
+        xLocalScore -= Evaluator.localScore(localBoard, xCells[localBoard], oCells[localBoard]);
+        oLocalScore -= Evaluator.localScore(localBoard, oCells[localBoard], xCells[localBoard]);
+    }
+
+    // Recalcule la somme des scores des plateaux locaux ouverts
+    private void computeLocalScores() {
+        xLocalScore = 0;
+        oLocalScore = 0;
+        for (int i = 0; i < 9; i++) {
+            if (localBoardStatus[i] == 0) {
+                addLocalScore(i);
             }
         }
+    }
 
-        // Check columns
-        for (int i = 0; i < 3; i++) {
-            if (board[startRow][startCol + i] != 0 &&
-                    board[startRow][startCol + i] == board[startRow + 1][startCol + i] &&
-                    board[startRow][startCol + i] == board[startRow + 2][startCol + i]) {
-                return board[startRow][startCol + i];
+    // Recalcule la clé Zobrist (le trait se déduit du nombre de pièces)
+    private void computeHash() {
+        hash = Zobrist.NEXT_BOARD[nextLocalBoard + 1];
+        int pieces = 0;
+
+        // Lit les masques directement (appelé depuis les constructeurs)
+        for (int localBoard = 0; localBoard < 9; localBoard++) {
+            for (int bit = 0; bit < 9; bit++) {
+                int cell = LOCAL_CELLS[localBoard][bit];
+                if ((xCells[localBoard] & (1 << bit)) != 0) {
+                    hash ^= Zobrist.cellKey(cell, 4);
+                } else if ((oCells[localBoard] & (1 << bit)) != 0) {
+                    hash ^= Zobrist.cellKey(cell, 2);
+                }
             }
+            pieces += Integer.bitCount(xCells[localBoard]) + Integer.bitCount(oCells[localBoard]);
         }
 
-        // Check diagonals
-        if (board[startRow][startCol] != 0 &&
-                board[startRow][startCol] == board[startRow + 1][startCol + 1] &&
-                board[startRow][startCol] == board[startRow + 2][startCol + 2]) {
-            return board[startRow][startCol];
+        if ((pieces & 1) != 0) {
+            hash ^= Zobrist.SIDE_TO_MOVE;
         }
+    }
 
-        if (board[startRow][startCol + 2] != 0 &&
-                board[startRow][startCol + 2] == board[startRow + 1][startCol + 1] &&
-                board[startRow][startCol + 2] == board[startRow + 2][startCol]) {
-            return board[startRow][startCol + 2];
-        }
+    // Recalcule l'état de tous les plateaux locaux (initialisation seulement)
+    private void updateLocalBoardStatuses() {
+        xWon = 0;
+        oWon = 0;
+        drawn = 0;
 
-        // Check if the board is full (drawn)
-        boolean isFull = true;
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (board[startRow + i][startCol + j] == 0) {
-                    isFull = false;
-                    break;
-                }
-            }
-            if (!isFull) {
-                break;
+        for (int i = 0; i < 9; i++) {
+            int status = checkLocalBoardStatus(i);
+            localBoardStatus[i] = status;
+
+            if (status == 4) {
+                xWon |= 1 << i;
+            } else if (status == 2) {
+                oWon |= 1 << i;
+            } else if (status == 1) {
+                drawn |= 1 << i;
             }
         }
+    }
+
+    // Vérifie l'état d'un plateau local
+    private int checkLocalBoardStatus(int localBoard) {
+        if (WINNING[xCells[localBoard]]) {
+            return 4;
+        }
+
+        if (WINNING[oCells[localBoard]]) {
+            return 2;
+        }
 
-        return isFull ? 1 : 0;
+        // Check if the board is full (drawn)
+        return (xCells[localBoard] | oCells[localBoard]) == FULL_MASK ? 1 : 0;
     }
 
     // Vérifie l'état global du jeu
     public int checkGameStatus() {
-        // Check rows
-        for (int i = 0; i < 3; i++) {
-            if (localBoardStatus[i * 3] != 0 &&
-                    localBoardStatus[i * 3] != 1 &&
-                    localBoardStatus[i * 3] == localBoardStatus[i * 3 + 1] &&
-                    localBoardStatus[i * 3] == localBoardStatus[i * 3 + 2]) {
-                return localBoardStatus[i * 3];
-            }
+        if (WINNING[xWon]) {
+            return 4;
         }
 
-        // Check columns
-        for (int i = 0; i < 3; i++) {
-            if (localBoardStatus[i] != 0 &&
-                    localBoardStatus[i] != 1 &&
-                    localBoardStatus[i] == localBoardStatus[i + 3] &&
-                    localBoardStatus[i] == localBoardStatus[i + 6]) {
-                return localBoardStatus[i];
-            }
+        if (WINNING[oWon]) {
+            return 2;
         }
 
-        // Check diagonals
-        if (localBoardStatus[0] != 0 &&
-                localBoardStatus[0] != 1 &&
-                localBoardStatus[0] == localBoardStatus[4] &&
-                localBoardStatus[0] == localBoardStatus[8]) {
-            return localBoardStatus[0];
-        }
+        // Check if the game is drawn (all local boards are won or drawn)
+        return (xWon | oWon | drawn) == FULL_MASK ? 1 : 0;
+    }
 
-        if (localBoardStatus[2] != 0 &&
-                localBoardStatus[2] != 1 &&
-                localBoardStatus[2] == localBoardStatus[4] &&
-                localBoardStatus[2] == localBoardStatus[6]) {
-            return localBoardStatus[2];
+    // Valeur d'une case: 0 (vide), 2 (O), 4 (X)
+    public int getCell(int globalRow, int globalCol) {
+        int cell = globalRow * 9 + globalCol;
+        int localBoard = CELL_LOCAL_BOARD[cell];
+        int bit = 1 << CELL_BIT[cell];
+
+        if ((xCells[localBoard] & bit) != 0) {
+            return 4;
         }
 
-        // Check if the game is drawn (all local boards are won or drawn)
-        boolean allBoardsClosed = true;
-        for (int i = 0; i < 9; i++) {
-            if (localBoardStatus[i] == 0) {
-                allBoardsClosed = false;
-                break;
+        return (oCells[localBoard] & bit) != 0 ? 2 : 0;
+    }
+
+    // Masque des cases d'un joueur dans un plateau local
+    public int getPlayerCells(int localBoard, int player) {
+        return player == 4 ? xCells[localBoard] : oCells[localBoard];
+    }
+
+    // Masque des cases vides d'un plateau local
+    public int getEmptyCells(int localBoard) {
+        return ~(xCells[localBoard] | oCells[localBoard]) & FULL_MASK;
+    }
+
+    // Nombre de cases vides dans les plateaux locaux encore ouverts
+    public int getOpenEmptyCount() {
+        int closed = xWon | oWon | drawn;
+        int count = 0;
+        for (int localBoard = 0; localBoard < 9; localBoard++) {
+            if ((closed & (1 << localBoard)) == 0) {
+                count += Integer.bitCount(getEmptyCells(localBoard));
             }
         }
+        return count;
+    }
+
+    // Masque des plateaux locaux gagnés par un joueur
+    public int getWonBoards(int player) {
+        return player == 4 ? xWon : oWon;
+    }
 
-        return allBoardsClosed ? 1 : 0;
+    // Masque des plateaux locaux nuls
+    public int getDrawnBoards() {
+        return drawn;
     }
 
     // Getters
+    // Copie du plateau 9x9 (hors recherche)
     public int[][] getBoard() {
+        int[][] board = new int[9][9];
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                board[i][j] = getCell(i, j);
+            }
+        }
         return board;
     }
 
+    // Somme des scores des plateaux locaux ouverts pour le joueur (Evaluator.evaluateIncremental)
+    public int getLocalScore(int player) {
+        return player == 4 ? xLocalScore : oLocalScore;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
     public int getNextLocalBoard() {
         return nextLocalBoard;
     }
@@ -236,6 +414,28 @@ public class Board {
         return localBoardStatus;
     }
 
+    // Plateau sur une ligne: rangées séparées par '/', plateaux locaux par '|'
+    // Ex. "X..|...|.../.O.|...|.../..." suivi du plateau imposé
+    public String toCompactString() {
+        StringBuilder line = new StringBuilder(112);
+        for (int i = 0; i < 9; i++) {
+            if (i > 0) {
+                line.append('/');
+            }
+
+            for (int j = 0; j < 9; j++) {
+                if (j % 3 == 0 && j > 0) {
+                    line.append('|');
+                }
+
+                int cell = getCell(i, j);
+                line.append(cell == 4 ? 'X' : cell == 2 ? 'O' : '.');
+            }
+        }
+
+        return line.append(" next=").append(nextLocalBoard).toString();
+    }
+
     // Affiche le plateau pour debug
     public void printBoard() {
         for (int i = 0; i < 9; i++) {
@@ -249,9 +449,10 @@ public class Board {
                 }
 
                 char symbol = ' ';
-                if (board[i][j] == 4) {
+                int cell = getCell(i, j);
+                if (cell == 4) {
                     symbol = 'X';
-                } else if (board[i][j] == 2) {
+                } else if (cell == 2) {
                     symbol = 'O';
                 }
 
@@ -261,4 +462,4 @@ public class Board {
             System.out.println();
         }
     }
-}
\ No newline at end of file
+}
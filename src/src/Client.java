@@ -1,5 +1,6 @@
 import java.io.*;
-import java.net.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * Client pour jeu Ultimate Tic-Tac-Toe
@@ -8,133 +9,138 @@ public class Client {
     private static final int PLAYER_X = 4;
     private static final int PLAYER_O = 2;
     private static final long TIME_LIMIT_MILLIS = 2800; // 2.8 secondes
+    private static final String BOOK_FILE = "opening.book";
 
-    private Socket socket;
-    private BufferedInputStream input;
-    private BufferedOutputStream output;
-    private BufferedReader console;
+    private Transport transport;
     private Board board;
     private int player; // 4 pour X, 2 pour O
+    private SearchEngine engine;
+    private OpeningBook book; // null si aucun livre
 
     public Client(String serverAddress, int port) throws IOException {
-        socket = new Socket(serverAddress, port);
-        input = new BufferedInputStream(socket.getInputStream());
-        output = new BufferedOutputStream(socket.getOutputStream());
-        console = new BufferedReader(new InputStreamReader(System.in));
+        this(serverAddress, port, new SearchEngine());
+    }
+
+    // Client avec un moteur configuré (ex. parties simultanées de Referee)
+    public Client(String serverAddress, int port, SearchEngine engine) throws IOException {
+        transport = new Transport(serverAddress, port);
         board = new Board();
+        this.engine = engine;
+
+        // Livre d'ouvertures facultatif dans le répertoire courant
+        Path bookPath = Path.of(BOOK_FILE);
+        if (Files.exists(bookPath)) {
+            book = OpeningBook.open(bookPath);
+            Log.info("Opening book: " + book.size() + " positions");
+        }
     }
 
     public void play() {
         try {
             while (true) {
-                char cmd = (char) input.read();
-                System.out.println("Received command: " + cmd);
+                char cmd = transport.readCommand();
+                if (Log.isDebugEnabled()) {
+                    Log.debug("Received command: " + cmd);
+                }
+
+                // Notre tour (ou la fin de partie): arrête la réflexion en arrière-plan
+                engine.stopPondering();
 
-                if (cmd == '1') {
+                if (cmd == Transport.START_X) {
                     // Joue en tant que X
                     player = PLAYER_X;
                     handleStartGame();
 
                     // X joue en premier
                     makeAIMove();
-                } else if (cmd == '2') {
+                } else if (cmd == Transport.START_O) {
                     // Joue en tant que O
                     player = PLAYER_O;
                     handleStartGame();
-                    System.out.println("Waiting for X's move...");
-                } else if (cmd == '3') {
+                    Log.info("Waiting for X's move...");
+                } else if (cmd == Transport.YOUR_TURN) {
                     // Serveur demande le prochain coup
-                    byte[] aBuffer = new byte[16];
-                    int size = input.available();
-                    System.out.println("Size: " + size);
-                    input.read(aBuffer, 0, size);
-
-                    String lastMoveStr = new String(aBuffer).trim();
-                    System.out.println("Last move: " + lastMoveStr);
+                    int lastMove = transport.getLastMove();
 
                     // Met à jour le plateau avec le coup adverse
-                    Move lastMove = MoveGenerator.parseMove(lastMoveStr);
-                    if (lastMove != null && !lastMoveStr.equals("A0")) {
+                    if (lastMove >= 0) {
                         int opponent = (player == PLAYER_X) ? PLAYER_O : PLAYER_X;
-                        board.makeMove(lastMove.getRow(), lastMove.getCol(), opponent);
-                        System.out.println("Updated board with opponent's move: " + lastMoveStr);
-                        board.printBoard();
+                        board.makeMove(lastMove / 9, lastMove % 9, opponent);
+                        if (Log.isInfoEnabled()) {
+                            Log.info("Opponent's move: " + MoveGenerator.formatMove(Move.fromCell(lastMove)));
+                        }
                     }
 
                     // Joue notre coup
                     makeAIMove();
-                } else if (cmd == '4') {
+                } else if (cmd == Transport.INVALID_MOVE) {
                     // Coup invalide
-                    System.out.println("Invalid move! Trying again...");
+                    Log.warn("Invalid move! Trying again...");
                     makeAIMove();
-                } else if (cmd == '5') {
+                } else if (cmd == Transport.GAME_OVER) {
                     // Fin de partie
-                    byte[] aBuffer = new byte[16];
-                    int size = input.available();
-                    input.read(aBuffer, 0, size);
-                    String lastMoveStr = new String(aBuffer).trim();
-                    System.out.println("Game over. Last move: " + lastMoveStr);
+                    int lastMove = transport.getLastMove();
+                    Log.info("Game over. Last move: "
+                            + (lastMove >= 0 ? MoveGenerator.formatMove(Move.fromCell(lastMove)) : "none"));
 
                     // Envoi d'un retour à la ligne pour accuser réception
-                    output.write("\n".getBytes(), 0, 1);
-                    output.flush();
+                    transport.sendAcknowledgement();
                     break;
-                } else {
-                    System.out.println("Unknown command: " + cmd);
                 }
             }
         } catch (IOException e) {
-            System.out.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("Error: " + e.getMessage(), e);
+        } finally {
+            engine.stopPondering();
+            try {
+                transport.close();
+            } catch (IOException e) {
+                Log.warn("Error closing connection: " + e.getMessage());
+            }
         }
     }
 
-    private void handleStartGame() throws IOException {
-        byte[] aBuffer = new byte[1024];
-        int size = input.available();
-        System.out.println("Size: " + size);
-        input.read(aBuffer, 0, size);
-
-        String boardString = new String(aBuffer).trim();
-        System.out.println("Board: " + boardString);
-
+    private void handleStartGame() {
         // Initialise le plateau
-        String[] boardValues = boardString.split(" ");
-        int[] boardInts = new int[boardValues.length];
-        for (int i = 0; i < boardValues.length; i++) {
-            boardInts[i] = Integer.parseInt(boardValues[i]);
-        }
-
-        board.initializeBoard(boardInts);
+        board.initializeBoard(transport.getBoardValues());
 
-        System.out.println("New game started! You are playing " + (player == PLAYER_X ? "X" : "O"));
-        board.printBoard();
+        if (Log.isInfoEnabled()) {
+            Log.info("New game started! You are playing " + (player == PLAYER_X ? "X" : "O"));
+            Log.info("Board " + board.toCompactString());
+        }
     }
 
     private void makeAIMove() throws IOException {
-        System.out.println("AI thinking...");
-        long startTime = System.currentTimeMillis();
-
-        // Trouve le meilleur coup
-        Move bestMove = MinimaxAlphaBeta.findBestMove(board, player, TIME_LIMIT_MILLIS);
+        Log.debug("AI thinking...");
+        long startTime = System.nanoTime();
+
+        // Coup du livre d'ouvertures, sinon recherche
+        Move bestMove;
+        SearchResult result = null;
+        int bookMove = book != null ? book.lookup(board) : -1;
+        if (bookMove >= 0) {
+            bestMove = Move.fromCell(bookMove);
+        } else {
+            result = engine.search(board, player, SearchLimits.time(TIME_LIMIT_MILLIS));
+            bestMove = result.getMove();
+        }
 
         if (bestMove != null) {
-            // Convertit le coup en chaîne
-            String moveStr = MoveGenerator.formatMove(bestMove);
-            System.out.println("AI's move: " + moveStr);
-
-            // Joue le coup sur notre plateau
+            // Joue le coup sur notre plateau et l'envoie au serveur avant toute trace
             board.makeMove(bestMove.getRow(), bestMove.getCol(), player);
-            board.printBoard();
+            transport.sendMove(bestMove.getCell());
 
-            // Envoie le coup au serveur
-            output.write(moveStr.getBytes(), 0, moveStr.length());
-            output.flush();
+            long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000L;
+            if (Log.isInfoEnabled()) {
+                Log.info("AI's move: " + MoveGenerator.formatMove(bestMove) + " (" + elapsedMillis + " ms, "
+                        + (result != null ? result : "book") + ")");
+                Log.info("Board " + board.toCompactString());
+            }
 
-            long endTime = System.currentTimeMillis();
-            System.out.println("Time taken: " + (endTime - startTime) + " ms");
+            // Réfléchit sur le temps de l'adversaire
+            engine.startPondering(board, player);
         } else {
-            System.out.println("No valid moves found!");
+            Log.error("No valid moves found!");
         }
     }
 
@@ -151,17 +157,29 @@ public class Client {
             try {
                 port = Integer.parseInt(args[1]);
             } catch (NumberFormatException e) {
-                System.out.println("Invalid port number. Using default: 8888");
+                Log.warn("Invalid port number. Using default: 8888");
             }
         }
 
         try {
             Client client = new Client(serverAddress, port);
-            System.out.println("Starting game with AI player");
+
+            // Statistiques de recherche en lignes JSON, ajoutées au fichier donné
+            if (args.length > 2) {
+                client.engine.setStatsOutput(new PrintStream(new FileOutputStream(args[2], true), true));
+            }
+
+            // Cache persistant des recherches profondes, partagé entre processus
+            if (args.length > 3) {
+                client.engine.setPersistentCache(new PersistentCache(Path.of(args[3])));
+            }
+
+            Log.info("Starting game with AI player");
             client.play();
         } catch (IOException e) {
-            System.out.println("Error connecting to server: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("Error connecting to server: " + e.getMessage(), e);
         }
+
+        Log.flush();
     }
 }
\ No newline at end of file
@@ -0,0 +1,236 @@
+/**
+ * Résolution exacte des fins de partie
+ *
+ * Quand il reste peu de cases vides dans les plateaux locaux ouverts,
+ * l'arbre restant est cherché jusqu'aux positions finales (negamax PVS:
+ * fenêtres nulles, re-recherche, table de transposition). Le score est
+ * exact: 0 pour une nulle, MATE - n pour un gain au coup n (compté depuis
+ * la racine), -(MATE - n) pour une perte. Les entrées du solveur sont
+ * rangées dans la table sous une clé distincte de la recherche heuristique.
+ */
+class EndgameSolver {
+    // Score d'un gain immédiat
+    static final int MATE = 100_000;
+
+    // Nombre de cases vides (plateaux ouverts) à partir duquel le solveur s'applique
+    static final int THRESHOLD = 20;
+
+    // Part du temps accordée au solveur avant de revenir à la recherche heuristique
+    private static final double TIME_FRACTION = 0.3;
+
+    private final Board board;
+    private final SearchContext shared;
+    private final TranspositionTable table;
+
+    // Tampons de coups préalloués, un par niveau, et scores de tri
+    private final int[][] moveBuffers = new int[THRESHOLD + 2][81];
+    private final int[] scores = new int[81];
+
+    // Recherche interrompue: les appels en cours remontent sans résultat
+    private boolean aborted;
+
+    // Compteurs, ajoutés au contexte en fin de résolution
+    private long nodes;
+    private long interiorNodes;
+    private long betaCutoffs;
+    private long firstMoveCutoffs;
+    private long ttProbes;
+    private long ttHits;
+
+    EndgameSolver(Board board, SearchContext shared, TranspositionTable table) {
+        this.board = new Board(board);
+        this.shared = shared;
+        this.table = table;
+    }
+
+    // La position est assez petite pour être résolue
+    static boolean applies(Board board) {
+        return board.checkGameStatus() == 0 && board.getOpenEmptyCount() <= THRESHOLD;
+    }
+
+    // Résout la position pour player et rapporte le meilleur coup au contexte
+    // Retourne faux si le temps accordé au solveur est écoulé
+    boolean solve(int player) {
+        int depth = board.getOpenEmptyCount();
+        int[] moves = moveBuffers[0];
+        int moveCount = order(moves, player, TranspositionTable.moveOf(table.probe(Zobrist.solverKey(board))));
+
+        int opponent = (player == 4) ? 2 : 4;
+        int alpha = -MATE;
+        int beta = MATE;
+        int bestMove = -1;
+        int bestScore = -MATE;
+
+        for (int i = 0; i < moveCount; i++) {
+            int move = moves[i];
+
+            board.playMove(move, player);
+            int score;
+            if (i == 0) {
+                score = -negamax(1, -beta, -alpha, opponent);
+            } else {
+                score = -negamax(1, -alpha - 1, -alpha, opponent);
+                if (score > alpha && score < beta) {
+                    score = -negamax(1, -beta, -alpha, opponent);
+                }
+            }
+            board.unmakeMove();
+
+            if (aborted) {
+                break;
+            }
+
+            if (score > bestScore || bestMove < 0) {
+                bestScore = score;
+                bestMove = move;
+            }
+            if (bestScore > alpha) {
+                alpha = bestScore;
+            }
+        }
+
+        shared.addCounters(nodes, 0, interiorNodes, betaCutoffs, firstMoveCutoffs, ttProbes, ttHits);
+        if (aborted) {
+            return false;
+        }
+
+        table.store(Zobrist.solverKey(board), depth, TranspositionTable.EXACT, bestScore, bestMove);
+        shared.report(depth, bestMove, bestScore);
+        shared.recordIteration(depth, shared.time.elapsedMillis(), nodes, bestScore);
+        return true;
+    }
+
+    // Negamax PVS jusqu'aux positions finales (score du point de vue de side)
+    private int negamax(int ply, int alpha, int beta, int side) {
+        if ((++nodes & (MinimaxAlphaBeta.CHECK_INTERVAL - 1)) == 0 && checkTime()) {
+            return 0;
+        }
+
+        // Fin de partie: le joueur au trait a perdu, ou nulle
+        int gameStatus = board.checkGameStatus();
+        if (gameStatus != 0) {
+            return gameStatus == 1 ? 0 : -(MATE - ply);
+        }
+
+        // Aucun résultat ne peut battre un gain au prochain coup ni une perte immédiate
+        alpha = Math.max(alpha, -(MATE - ply));
+        beta = Math.min(beta, MATE - ply - 1);
+        if (alpha >= beta) {
+            return alpha;
+        }
+
+        // Consulte la table (scores rangés relativement au noeud)
+        long key = Zobrist.solverKey(board);
+        long entry = table.probe(key);
+        int ttMove = -1;
+        ttProbes++;
+        if (entry != 0) {
+            ttHits++;
+            ttMove = TranspositionTable.moveOf(entry);
+
+            int ttScore = fromTable(TranspositionTable.scoreOf(entry), ply);
+            int bound = TranspositionTable.boundOf(entry);
+            if (bound == TranspositionTable.EXACT) {
+                return ttScore;
+            } else if (bound == TranspositionTable.LOWER_BOUND) {
+                alpha = Math.max(alpha, ttScore);
+            } else {
+                beta = Math.min(beta, ttScore);
+            }
+
+            if (alpha >= beta) {
+                return ttScore;
+            }
+        }
+
+        int[] moves = moveBuffers[ply];
+        int moveCount = order(moves, side, ttMove);
+
+        interiorNodes++;
+        int opponent = (side == 4) ? 2 : 4;
+        int originalAlpha = alpha;
+        int bestScore = -MATE;
+        int bestMove = -1;
+
+        for (int i = 0; i < moveCount; i++) {
+            int move = moves[i];
+
+            board.playMove(move, side);
+            int score;
+            if (i == 0) {
+                score = -negamax(ply + 1, -beta, -alpha, opponent);
+            } else {
+                score = -negamax(ply + 1, -alpha - 1, -alpha, opponent);
+                if (score > alpha && score < beta) {
+                    score = -negamax(ply + 1, -beta, -alpha, opponent);
+                }
+            }
+            board.unmakeMove();
+
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+            if (bestScore > alpha) {
+                alpha = bestScore;
+            }
+            if (alpha >= beta) {
+                betaCutoffs++;
+                if (i == 0) {
+                    firstMoveCutoffs++;
+                }
+                break;
+            }
+        }
+
+        table.store(key, 0, MinimaxAlphaBeta.boundType(bestScore, originalAlpha, beta), toTable(bestScore, ply),
+                bestMove);
+
+        return bestScore;
+    }
+
+    // Génère les coups: coup de la table, puis coups tactiques, puis le reste
+    private int order(int[] moves, int side, int ttMove) {
+        int moveCount = MoveGenerator.generateMoves(board, moves);
+
+        for (int i = 0; i < moveCount; i++) {
+            int move = moves[i];
+            int score = move == ttMove ? Integer.MAX_VALUE : MoveOrderer.tacticalScore(board, move, side);
+            MoveOrderer.insert(moves, scores, i, move, score);
+        }
+
+        return moveCount;
+    }
+
+    // Score de gain ou de perte compté depuis le noeud plutôt que depuis la racine
+    private static int toTable(int score, int ply) {
+        if (score > MATE / 2) {
+            return score + ply;
+        } else if (score < -MATE / 2) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > MATE / 2) {
+            return score - ply;
+        } else if (score < -MATE / 2) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    // Le solveur s'arrête à sa part du temps sans interrompre la recherche
+    // heuristique qui prend le relais
+    private boolean checkTime() {
+        if (shared.stop || shared.time.expired(TIME_FRACTION)) {
+            aborted = true;
+        }
+        return aborted;
+    }
+}
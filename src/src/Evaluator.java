@@ -1,5 +1,9 @@
 /**
  * Évaluateur pour jeu Ultimate Tic-Tac-Toe
+ *
+ * Les scores des plateaux locaux (3^9 états) et des motifs globaux (4^9
+ * états des 9 plateaux) sont précalculés au chargement de la classe:
+ * l'évaluation d'une feuille se réduit à des lectures de tables.
  */
 public class Evaluator {
     // Constantes pour l'évaluation
@@ -32,54 +36,120 @@ public class Evaluator {
             {3, 2, 3}  // Plateaux Coin, Bord, Coin
     };
 
+    // Nombre d'états d'un plateau local (3^9) et de l'ensemble des plateaux (4^9)
+    private static final int LOCAL_STATES = 19683;
+    private static final int GLOBAL_STATES = 262144;
+
+    // Index ternaire / quaternaire d'un masque de 9 bits (somme des 3^bit / 4^bit)
+    private static final int[] TERNARY = new int[512];
+    private static final int[] QUATERNARY = new int[512];
+
+    // Score d'un plateau local ouvert selon son état, du point de vue du joueur
+    // dont les pièces valent 1 dans l'index ternaire (2 pour l'adversaire)
+    private static final int[][] LOCAL_SCORES = new int[9][];
+
+    // Score des plateaux fermés et des motifs globaux selon l'état des 9 plateaux
+    // (0 ouvert, 1 gagné par le joueur, 2 par l'adversaire, 3 nul)
+    private static final int[] GLOBAL_SCORES = new int[GLOBAL_STATES];
+
+    static {
+        for (int mask = 0; mask < 512; mask++) {
+            int power3 = 1;
+            int power4 = 1;
+            for (int bit = 0; bit < 9; bit++) {
+                if ((mask & (1 << bit)) != 0) {
+                    TERNARY[mask] += power3;
+                    QUATERNARY[mask] += power4;
+                }
+                power3 *= 3;
+                power4 *= 4;
+            }
+        }
+
+        // Une table par poids de plateau (les plateaux de même poids la partagent)
+        int[][] byWeight = new int[5][];
+        for (int localBoard = 0; localBoard < 9; localBoard++) {
+            int weight = BOARD_WEIGHTS[localBoard / 3][localBoard % 3];
+            if (byWeight[weight] == null) {
+                byWeight[weight] = buildLocalScores(weight);
+            }
+            LOCAL_SCORES[localBoard] = byWeight[weight];
+        }
+
+        int[] status = new int[9];
+        for (int state = 0; state < GLOBAL_STATES; state++) {
+            int digits = state;
+            for (int i = 0; i < 9; i++) {
+                status[i] = digits & 3;
+                digits >>= 2;
+            }
+            GLOBAL_SCORES[state] = evaluateClosedBoards(status);
+        }
+    }
+
     // Évalue la position pour le joueur (4 pour X, 2 pour O)
     public static int evaluate(Board board, int player) {
         int opponent = (player == 4) ? 2 : 4;
 
         // Vérifie si la partie est terminée
         int gameStatus = board.checkGameStatus();
-        if (gameStatus == player) {
-            return WIN_SCORE;
-        } else if (gameStatus == opponent) {
-            return -WIN_SCORE;
-        } else if (gameStatus == 1) {
-            return 0; // Match nul
+        if (gameStatus != 0) {
+            return evaluateGameOver(gameStatus, player);
         }
 
-        int score = 0;
-        int[][] boardState = board.getBoard();
+        int score = evaluateGlobal(board, player, opponent);
+
+        // Évalue chaque plateau local ouvert
         int[] localBoardStatus = board.getLocalBoardStatus();
+        for (int localBoard = 0; localBoard < 9; localBoard++) {
+            if (localBoardStatus[localBoard] == 0) {
+                score += localScore(localBoard, board.getPlayerCells(localBoard, player),
+                        board.getPlayerCells(localBoard, opponent));
+            }
+        }
 
-        // Menaces et victoires potentielles
-        int playerLocalWins = 0;
-        int opponentLocalWins = 0;
+        return score;
+    }
 
-        // Évalue chaque plateau local
-        for (int boardRow = 0; boardRow < 3; boardRow++) {
-            for (int boardCol = 0; boardCol < 3; boardCol++) {
-                int localBoard = boardRow * 3 + boardCol;
-                int boardWeight = BOARD_WEIGHTS[boardRow][boardCol];
+    // Même score que evaluate, en lisant la somme des plateaux locaux tenue
+    // à jour par Board.playMove/unmakeMove (vérifié avec -ea)
+    public static int evaluateIncremental(Board board, int player) {
+        int opponent = (player == 4) ? 2 : 4;
 
-                // Position de départ de ce plateau local
-                int startRow = boardRow * 3;
-                int startCol = boardCol * 3;
+        // Vérifie si la partie est terminée
+        int gameStatus = board.checkGameStatus();
+        if (gameStatus != 0) {
+            return evaluateGameOver(gameStatus, player);
+        }
 
-                // Si le plateau local est gagné
-                if (localBoardStatus[localBoard] == player) {
-                    score += STRATEGIC_LOCAL_BOARD_SCORE * boardWeight;
-                    playerLocalWins++;
-                } else if (localBoardStatus[localBoard] == opponent) {
-                    score -= STRATEGIC_LOCAL_BOARD_SCORE * boardWeight;
-                    opponentLocalWins++;
-                } else if (localBoardStatus[localBoard] == 0) {
-                    // Évalue un plateau local ouvert
-                    score += evaluateLocalBoard(boardState, startRow, startCol, player, opponent, boardWeight);
-                }
-            }
+        int score = evaluateGlobal(board, player, opponent) + board.getLocalScore(player);
+        assert score == evaluate(board, player) : "Incremental evaluation out of sync";
+        return score;
+    }
+
+    // Score d'un plateau local ouvert selon les cases du joueur et de l'adversaire
+    static int localScore(int localBoard, int playerCells, int opponentCells) {
+        return LOCAL_SCORES[localBoard][TERNARY[playerCells] + 2 * TERNARY[opponentCells]];
+    }
+
+    // Score d'une partie terminée
+    private static int evaluateGameOver(int gameStatus, int player) {
+        if (gameStatus == player) {
+            return WIN_SCORE;
+        } else if (gameStatus == 1) {
+            return 0; // Match nul
         }
+        return -WIN_SCORE;
+    }
 
-        // Évalue les motifs globaux
-        score += evaluateGlobalPatterns(localBoardStatus, player, opponent);
+    // Plateaux fermés, motifs globaux et plateau imposé
+    private static int evaluateGlobal(Board board, int player, int opponent) {
+        int[] localBoardStatus = board.getLocalBoardStatus();
+
+        // Plateaux fermés et motifs globaux
+        int score = GLOBAL_SCORES[QUATERNARY[board.getWonBoards(player)]
+                + 2 * QUATERNARY[board.getWonBoards(opponent)]
+                + 3 * QUATERNARY[board.getDrawnBoards()]];
 
         // Évalue les coups forcés et la sélection stratégique du plateau
         int nextLocalBoard = board.getNextLocalBoard();
@@ -99,6 +169,59 @@ public class Evaluator {
             }
         }
 
+        return score;
+    }
+
+    // Précalcule le score de chaque état d'un plateau local ouvert
+    private static int[] buildLocalScores(int boardWeight) {
+        int[] scores = new int[LOCAL_STATES];
+        int[] cells = new int[9];
+
+        for (int state = 0; state < LOCAL_STATES; state++) {
+            int digits = state;
+            for (int i = 0; i < 9; i++) {
+                cells[i] = digits % 3;
+                digits /= 3;
+            }
+            scores[state] = evaluateLocalBoard(cells, 1, 2, boardWeight);
+        }
+
+        return scores;
+    }
+
+    // Score des plateaux gagnés et des motifs globaux (joueur 1, adversaire 2, nul 3)
+    private static int evaluateClosedBoards(int[] status) {
+        int player = 1;
+        int opponent = 2;
+        int score = 0;
+
+        // Menaces et victoires potentielles
+        int playerLocalWins = 0;
+        int opponentLocalWins = 0;
+
+        // Les plateaux nuls ont le statut 1 pour evaluateGlobalPatterns
+        int[] localBoardStatus = new int[9];
+
+        for (int localBoard = 0; localBoard < 9; localBoard++) {
+            int boardWeight = BOARD_WEIGHTS[localBoard / 3][localBoard % 3];
+
+            // Si le plateau local est gagné
+            if (status[localBoard] == 1) {
+                score += STRATEGIC_LOCAL_BOARD_SCORE * boardWeight;
+                playerLocalWins++;
+                localBoardStatus[localBoard] = 4;
+            } else if (status[localBoard] == 2) {
+                score -= STRATEGIC_LOCAL_BOARD_SCORE * boardWeight;
+                opponentLocalWins++;
+                localBoardStatus[localBoard] = 2;
+            } else if (status[localBoard] == 3) {
+                localBoardStatus[localBoard] = 1;
+            }
+        }
+
+        // Évalue les motifs globaux
+        score += evaluateGlobalPatterns(localBoardStatus, 4, 2);
+
         // Évalue les menaces de victoire globales
         if (playerLocalWins >= 2) {
             score += playerLocalWins * 100;
@@ -112,8 +235,7 @@ public class Evaluator {
     }
 
     // Évaluation détaillée d'un plateau local ouvert
-    private static int evaluateLocalBoard(int[][] boardState, int startRow, int startCol,
-                                          int player, int opponent, int boardWeight) {
+    private static int evaluateLocalBoard(int[] cells, int player, int opponent, int boardWeight) {
         int score = 0;
 
         // Compte pièces et victoires potentielles
@@ -123,9 +245,7 @@ public class Evaluator {
         // Compte pièces dans ce plateau local
         for (int i = 0; i < 3; i++) {
             for (int j = 0; j < 3; j++) {
-                int row = startRow + i;
-                int col = startCol + j;
-                int cellValue = boardState[row][col];
+                int cellValue = cells[i * 3 + j];
                 int positionWeight = POSITION_WEIGHTS[i][j];
 
                 if (cellValue == player) {
@@ -139,9 +259,9 @@ public class Evaluator {
         }
 
         // Le contrôle du centre est important
-        if (boardState[startRow + 1][startCol + 1] == player) {
+        if (cells[4] == player) {
             score += CENTER_SCORE * 2 * boardWeight;
-        } else if (boardState[startRow + 1][startCol + 1] == opponent) {
+        } else if (cells[4] == opponent) {
             score -= CENTER_SCORE * 3 * boardWeight;
         } else {
             // Centre vide est un potentiel
@@ -149,16 +269,16 @@ public class Evaluator {
         }
 
         // Évalue lignes, colonnes et diagonales
-        score += evaluateLocalLines(boardState, startRow, startCol, player, opponent, boardWeight);
+        score += evaluateLocalLines(cells, player, opponent, boardWeight);
 
         // Évalue les fourchettes
-        score += evaluateForks(boardState, startRow, startCol, player, opponent);
+        score += evaluateForks(cells, player, opponent);
 
         return score;
     }
 
     // Évalue les fourchettes
-    private static int evaluateForks(int[][] boardState, int startRow, int startCol, int player, int opponent) {
+    private static int evaluateForks(int[] cells, int player, int opponent) {
         int score = 0;
         int playerWinningPaths = 0;
         int opponentWinningPaths = 0;
@@ -170,7 +290,7 @@ public class Evaluator {
             int emptyCount = 0;
 
             for (int j = 0; j < 3; j++) {
-                int cell = boardState[startRow + i][startCol + j];
+                int cell = cells[i * 3 + j];
                 if (cell == player) playerPieces++;
                 else if (cell == opponent) opponentPieces++;
                 else emptyCount++;
@@ -194,7 +314,7 @@ public class Evaluator {
             int emptyCount = 0;
 
             for (int i = 0; i < 3; i++) {
-                int cell = boardState[startRow + i][startCol + j];
+                int cell = cells[i * 3 + j];
                 if (cell == player) playerPieces++;
                 else if (cell == opponent) opponentPieces++;
                 else emptyCount++;
@@ -215,7 +335,7 @@ public class Evaluator {
         int emptyCount = 0;
 
         for (int i = 0; i < 3; i++) {
-            int cell = boardState[startRow + i][startCol + i];
+            int cell = cells[i * 3 + i];
             if (cell == player) playerPieces++;
             else if (cell == opponent) opponentPieces++;
             else emptyCount++;
@@ -235,7 +355,7 @@ public class Evaluator {
         emptyCount = 0;
 
         for (int i = 0; i < 3; i++) {
-            int cell = boardState[startRow + i][startCol + 2 - i];
+            int cell = cells[i * 3 + 2 - i];
             if (cell == player) playerPieces++;
             else if (cell == opponent) opponentPieces++;
             else emptyCount++;
@@ -262,8 +382,7 @@ public class Evaluator {
     }
 
     // Évalue lignes, colonnes et diagonales d'un plateau local
-    private static int evaluateLocalLines(int[][] boardState, int startRow, int startCol,
-                                          int player, int opponent, int boardWeight) {
+    private static int evaluateLocalLines(int[] cells, int player, int opponent, int boardWeight) {
         int score = 0;
 
         // Évalue les lignes
@@ -273,7 +392,7 @@ public class Evaluator {
             int emptyCount = 0;
 
             for (int j = 0; j < 3; j++) {
-                int cell = boardState[startRow + i][startCol + j];
+                int cell = cells[i * 3 + j];
                 if (cell == player) {
                     playerCount++;
                 } else if (cell == opponent) {
@@ -293,7 +412,7 @@ public class Evaluator {
             int emptyCount = 0;
 
             for (int i = 0; i < 3; i++) {
-                int cell = boardState[startRow + i][startCol + j];
+                int cell = cells[i * 3 + j];
                 if (cell == player) {
                     playerCount++;
                 } else if (cell == opponent) {
@@ -312,7 +431,7 @@ public class Evaluator {
         int emptyCount = 0;
 
         for (int i = 0; i < 3; i++) {
-            int cell = boardState[startRow + i][startCol + i];
+            int cell = cells[i * 3 + i];
             if (cell == player) {
                 playerCount++;
             } else if (cell == opponent) {
@@ -331,7 +450,7 @@ public class Evaluator {
         emptyCount = 0;
 
         for (int i = 0; i < 3; i++) {
-            int cell = boardState[startRow + i][startCol + 2 - i];
+            int cell = cells[i * 3 + 2 - i];
             if (cell == player) {
                 playerCount++;
             } else if (cell == opponent) {
@@ -0,0 +1,170 @@
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Journal asynchrone
+ *
+ * Les threads qui écrivent (client, recherche) déposent leur ligne dans un
+ * tampon circulaire sans verrou et repartent aussitôt; un thread en
+ * arrière-plan vide le tampon vers la sortie. Si la sortie bloque et que
+ * le tampon est plein, les lignes sont perdues (et comptées) plutôt que
+ * de ralentir la recherche. Niveau par défaut: INFO, ou la propriété
+ * système log.level (DEBUG, INFO, WARN, ERROR, OFF, sans tenir compte de
+ * la casse; une valeur inconnue laisse INFO avec un avertissement).
+ */
+public class Log {
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR, OFF
+    }
+
+    // Taille du tampon (puissance de 2)
+    private static final int CAPACITY = 1024;
+
+    // Attente du thread d'écriture quand le tampon est vide
+    private static final long IDLE_NANOS = 1_000_000L;
+
+    private static final AtomicReferenceArray<String> slots = new AtomicReferenceArray<>(CAPACITY);
+
+    // Prochaine position à écrire (producteurs) et à lire (thread d'écriture seul)
+    private static final AtomicLong tail = new AtomicLong();
+    private static volatile long head;
+
+    private static final AtomicLong dropped = new AtomicLong();
+    private static volatile Level level = Level.INFO;
+    private static volatile PrintStream output = System.out;
+
+    static {
+        Thread writer = new Thread(Log::drain, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        String property = System.getProperty("log.level", "INFO");
+        Level configured = parseLevel(property);
+        if (configured != null) {
+            level = configured;
+        } else {
+            warn("Unknown log.level '" + property + "', using INFO");
+        }
+
+        // Vide le tampon à la sortie du programme
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "log-flush"));
+    }
+
+    private Log() {
+    }
+
+    // Niveau correspondant au nom (sans tenir compte de la casse), null si inconnu
+    public static Level parseLevel(String name) {
+        try {
+            return Level.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    // Change la sortie (System.out par défaut)
+    public static void setOutput(PrintStream newOutput) {
+        output = newOutput;
+    }
+
+    public static boolean isEnabled(Level messageLevel) {
+        return messageLevel.compareTo(level) >= 0 && messageLevel != Level.OFF;
+    }
+
+    // À tester avant de construire un message coûteux (concaténation, plateau)
+    public static boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    public static boolean isInfoEnabled() {
+        return isEnabled(Level.INFO);
+    }
+
+    public static void debug(String message) {
+        log(Level.DEBUG, message);
+    }
+
+    public static void info(String message) {
+        log(Level.INFO, message);
+    }
+
+    public static void warn(String message) {
+        log(Level.WARN, message);
+    }
+
+    public static void error(String message) {
+        log(Level.ERROR, message);
+    }
+
+    public static void error(String message, Throwable error) {
+        if (isEnabled(Level.ERROR)) {
+            StringWriter trace = new StringWriter();
+            error.printStackTrace(new PrintWriter(trace));
+            log(Level.ERROR, message + System.lineSeparator() + trace);
+        }
+    }
+
+    // Nombre de lignes perdues faute de place
+    public static long getDropped() {
+        return dropped.get();
+    }
+
+    // Attend que les lignes déjà déposées soient écrites
+    public static void flush() {
+        long target = tail.get();
+        while (head < target) {
+            LockSupport.parkNanos(IDLE_NANOS);
+        }
+        output.flush();
+    }
+
+    private static void log(Level messageLevel, String message) {
+        if (!isEnabled(messageLevel)) {
+            return;
+        }
+
+        String line = messageLevel == Level.INFO ? message : messageLevel + " " + message;
+
+        // Réserve une place libre, sinon abandonne la ligne
+        while (true) {
+            long position = tail.get();
+            if (position - head >= CAPACITY) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (tail.compareAndSet(position, position + 1)) {
+                slots.set((int) position & (CAPACITY - 1), line);
+                return;
+            }
+        }
+    }
+
+    // Boucle du thread d'écriture
+    private static void drain() {
+        long position = head;
+        while (true) {
+            int index = (int) position & (CAPACITY - 1);
+            String line = slots.get(index);
+
+            // Vide ou pas encore publiée: écrit ce qui a été lu et attend
+            if (line == null) {
+                output.flush();
+                LockSupport.parkNanos(IDLE_NANOS);
+                continue;
+            }
+
+            slots.set(index, null);
+            head = ++position;
+            output.println(line);
+        }
+    }
+}
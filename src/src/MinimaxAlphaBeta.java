@@ -1,193 +1,503 @@
-import java.util.List;
-
 /**
  * Algorithme Minimax avec élagage Alpha-Beta pour Ultimate Tic-Tac-Toe
+ *
+ * Forme negamax avec recherche à variation principale (PVS): le premier
+ * coup est cherché en fenêtre complète, les suivants en fenêtre nulle avec
+ * re-recherche s'ils améliorent alpha. Chaque itération part d'une
+ * fenêtre d'aspiration autour du score précédent, élargie en cas d'échec.
+ *
+ * À l'horizon, une recherche de quiescence prolonge les seules séquences
+ * tactiques (gain ou blocage d'un plateau local) pour stabiliser le score.
+ *
+ * Un MinimaxAlphaBeta est un thread de recherche de SearchEngine: il
+ * travaille sur sa propre copie du plateau et partage avec les autres
+ * threads de la même recherche un SearchContext et la table de
+ * transposition (Lazy SMP). Les threads auxiliaires décalent leur
+ * profondeur et leur ordre des coups pour remplir la table de résultats
+ * utiles au thread principal.
  */
-public class MinimaxAlphaBeta {
-    private static final int MAX_DEPTH = 12;
-    private static long timeLimit;
-    private static long startTime;
-    private static boolean timeLimitReached;
-
-    // Trouve le meilleur coup
-    public static Move findBestMove(Board board, int player, long timeLimitMillis) {
-        timeLimit = timeLimitMillis;
-        startTime = System.currentTimeMillis();
-        timeLimitReached = false;
+class MinimaxAlphaBeta {
+    // Facteur de croissance par défaut du temps d'une itération à la suivante
+    private static final double DEFAULT_GROWTH = 4.0;
+
+    // Profondeur maximale de la recherche de quiescence au-delà de l'horizon
+    private static final int QUIESCENCE_DEPTH = 4;
+
+    // Le temps n'est consulté que tous les CHECK_INTERVAL noeuds (puissance de 2)
+    static final int CHECK_INTERVAL = 1024;
+
+    // Borne des scores (évite le débordement de -Integer.MIN_VALUE)
+    static final int INFINITY = 1_000_000;
+
+    // Valeur retournée par une recherche interrompue (jamais utilisée comme score)
+    private static final int ABORTED = 0;
+
+    // Fenêtre d'aspiration initiale et profondeur à partir de laquelle elle s'applique
+    private static final int ASPIRATION_WINDOW = 50;
+    private static final int ASPIRATION_MIN_DEPTH = 3;
+
+    // État propre à ce thread de recherche
+    private final Board board;
+    private final int player;
+    private final int threadId;
+    private final SearchContext shared;
+    private final TranspositionTable table;
+    private final int maxDepth;
+
+    // Tampons de coups préalloués, un par niveau (quiescence comprise)
+    private final int[][] moveBuffers;
+    private final int[] tacticalScores = new int[81];
+
+    // Ordre des coups (coups tueurs et historique propres à ce thread)
+    private final MoveOrderer orderer;
+
+    // Score du dernier appel à findBestMoveAtDepth
+    private int lastScore;
+
+    // Recherche interrompue: les appels en cours remontent sans résultat
+    private boolean aborted;
+
+    // Meilleur coup racine de la dernière itération, cherché en premier
+    private int previousBest = -1;
+
+    // Compteurs de ce thread, ajoutés au contexte en fin de recherche
+    private long nodes;
+    private long quiescenceNodes;
+    private long interiorNodes;
+    private long betaCutoffs;
+    private long firstMoveCutoffs;
+    private long ttProbes;
+    private long ttHits;
+
+    MinimaxAlphaBeta(Board board, int player, int threadId, SearchContext shared, TranspositionTable table) {
+        // Toute la recherche se fait sur une seule copie modifiable
+        this.board = new Board(board);
+        this.player = player;
+        this.threadId = threadId;
+        this.shared = shared;
+        this.table = table;
+        this.maxDepth = shared.maxDepth;
+        this.moveBuffers = new int[maxDepth + QUIESCENCE_DEPTH + 1][81];
+        this.orderer = new MoveOrderer(maxDepth);
+    }
 
+    // Approfondissement itératif du thread principal
+    void searchMain() {
         // Augmente la profondeur progressivement (approfondissement itératif)
-        Move bestMove = null;
-        Move lastCompletedMove = null;
-
         // Profondeur 1 minimum
-        try {
-            bestMove = findBestMoveAtDepth(board, player, 1);
-            lastCompletedMove = bestMove;
-        } catch (TimeoutException e) {
-            System.out.println("Timeout reached at depth 1");
-            return bestMove;
+        int move = findBestMoveAtDepth(1);
+        if (aborted) {
+            if (logging()) {
+                Log.info("Timeout reached at depth 1");
+            }
+            addCounters();
+            return;
         }
+        shared.report(1, move, lastScore);
+        shared.recordIteration(1, shared.time.elapsedMillis(), nodes, lastScore);
+
+        // Recherche plus profonde tant que la prochaine itération devrait finir à temps
+        long previousIterationTime = 0;
+        long iterationStart = 0;
+        for (int depth = 2; depth <= maxDepth; depth++) {
+            long now = shared.time.elapsedNanos();
+            long lastIterationTime = now - iterationStart;
+
+            // Estime la durée de la prochaine itération d'après la croissance observée
+            double growth = DEFAULT_GROWTH;
+            if (previousIterationTime > 0) {
+                growth = Math.max(2.0, Math.min(8.0, (double) lastIterationTime / previousIterationTime));
+            }
 
-        // Recherche plus profonde avec le temps restant
-        for (int depth = 2; depth <= MAX_DEPTH; depth++) {
-            try {
-                long elapsedTime = System.currentTimeMillis() - startTime;
-                long remainingTime = timeLimit - elapsedTime;
-
-                // Arrête si moins de 10% du temps total reste
-                if (remainingTime < (timeLimit * 0.1)) {
-                    System.out.println("Not enough time for depth " + depth + ", stopping search");
-                    break;
+            boolean predictedLate = lastIterationTime * growth > shared.time.remainingNanos();
+            if (!shared.fullTime && (shared.time.softExpired() || predictedLate)) {
+                if (logging()) {
+                    Log.info("Depth " + depth + " would not finish in time, stopping search");
                 }
+                break;
+            }
 
-                Move move = findBestMoveAtDepth(board, player, depth);
-                if (!timeLimitReached) {
-                    lastCompletedMove = move;
-                    bestMove = move;
-                    System.out.println("Completed search at depth " + depth);
-                } else {
-                    break;
+            previousIterationTime = lastIterationTime;
+            iterationStart = now;
+
+            move = findBestMoveAtDepth(depth);
+            if (aborted) {
+                if (logging()) {
+                    Log.info("Timeout reached at depth " + depth);
                 }
-            } catch (TimeoutException e) {
-                System.out.println("Timeout reached at depth " + depth);
                 break;
             }
-        }
 
-        // Retourne le coup complet ou le meilleur disponible
-        if (lastCompletedMove != null) {
-            bestMove = lastCompletedMove;
+            shared.report(depth, move, lastScore);
+            shared.recordIteration(depth, (shared.time.elapsedNanos() - iterationStart) / 1_000_000L, nodes,
+                    lastScore);
+            if (logging()) {
+                Log.info("Completed search at depth " + depth);
+            }
         }
 
-        // Utilise le temps restant si beaucoup est disponible
-        long elapsedTime = System.currentTimeMillis() - startTime;
-        long remainingTime = timeLimit - elapsedTime;
+        addCounters();
+    }
 
-        // Si plus de 30% du temps reste
-        if (remainingTime > (timeLimit * 0.3) && remainingTime > 200) {
-            long sleepTime = Math.min(remainingTime - 100, 1000);
-            try {
-                System.out.println("Thinking more deeply for " + sleepTime + "ms");
-                Thread.sleep(sleepTime);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+    // Approfondissement itératif d'un thread auxiliaire
+    void iterativeDeepening() {
+        // Un thread sur deux cherche une profondeur plus loin que le principal
+        for (int depth = 1 + (threadId & 1); depth <= maxDepth; depth++) {
+            int move = findBestMoveAtDepth(depth);
+            if (aborted) {
+                break;
             }
+            shared.report(depth, move, lastScore);
         }
 
-        return bestMove;
+        addCounters();
+    }
+
+    // Trouve le meilleur coup (case 0-80) à une profondeur spécifique
+    // Fenêtre d'aspiration centrée sur le score de l'itération précédente
+    private int findBestMoveAtDepth(int depth) {
+        if (depth < ASPIRATION_MIN_DEPTH) {
+            return searchRoot(depth, -INFINITY, INFINITY);
+        }
+
+        int window = ASPIRATION_WINDOW;
+        int alpha = Math.max(-INFINITY, lastScore - window);
+        int beta = Math.min(INFINITY, lastScore + window);
+
+        while (true) {
+            int bestMove = searchRoot(depth, alpha, beta);
+            if (aborted) {
+                return bestMove;
+            }
+
+            // Échec bas ou haut: élargit la fenêtre du côté fautif et recommence
+            if (lastScore <= alpha && alpha > -INFINITY) {
+                window *= 4;
+                alpha = Math.max(-INFINITY, lastScore - window);
+            } else if (lastScore >= beta && beta < INFINITY) {
+                window *= 4;
+                beta = Math.min(INFINITY, lastScore + window);
+            } else {
+                return bestMove;
+            }
+        }
     }
 
-    // Trouve le meilleur coup à une profondeur spécifique
-    private static Move findBestMoveAtDepth(Board board, int player, int depth) throws TimeoutException {
-        List<Move> possibleMoves = MoveGenerator.generateMoves(board);
-        Move bestMove = null;
-        int bestScore = Integer.MIN_VALUE;
-        int alpha = Integer.MIN_VALUE;
-        int beta = Integer.MAX_VALUE;
+    // Recherche PVS à la racine dans la fenêtre (alpha, beta)
+    private int searchRoot(int depth, int alpha, int beta) {
+        int[] moves = moveBuffers[0];
+        int moveCount = MoveGenerator.generateMoves(board, moves);
+        int ttMove = TranspositionTable.moveOf(table.probe(Zobrist.searchKey(board, player)));
+        orderer.order(board, moves, moveCount, player, ttMove, 0);
+
+        // Le meilleur coup de l'itération précédente passe en tête, même si la
+        // table l'a perdu: une itération interrompue part ainsi de ce coup
+        for (int i = 1; i < moveCount; i++) {
+            if (moves[i] == previousBest) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = previousBest;
+                break;
+            }
+        }
+
+        int opponent = (player == 4) ? 2 : 4;
+        int originalAlpha = alpha;
+        int bestMove = -1;
+        int bestScore = -INFINITY;
+
+        for (int i = 0; i < moveCount; i++) {
+            // Les threads auxiliaires commencent à des coups différents
+            int move = moves[(i + threadId) % moveCount];
 
-        for (Move move : possibleMoves) {
             // Vérifie si limite de temps atteinte
-            if (System.currentTimeMillis() - startTime > timeLimit * 0.95) {
-                timeLimitReached = true;
-                throw new TimeoutException();
+            if (checkTime()) {
+                break;
             }
 
             // Joue le coup
-            Board newBoard = new Board(board);
-            newBoard.makeMove(move.getRow(), move.getCol(), player);
+            board.playMove(move, player);
+
+            // Premier coup en fenêtre complète, les suivants en fenêtre nulle
+            int score;
+            if (i == 0) {
+                score = -negamax(depth - 1, 1, -beta, -alpha, opponent);
+            } else {
+                score = -negamax(depth - 1, 1, -alpha - 1, -alpha, opponent);
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, 1, -beta, -alpha, opponent);
+                }
+            }
+            board.unmakeMove();
 
-            // Évalue le coup
-            int score = minimax(newBoard, depth - 1, alpha, beta, false, player);
+            // Recherche interrompue: le score de ce coup n'a pas de sens
+            if (aborted) {
+                break;
+            }
 
             // Met à jour le meilleur coup si nécessaire
-            if (score > bestScore) {
+            if (score > bestScore || bestMove < 0) {
                 bestScore = score;
                 bestMove = move;
             }
 
             // Met à jour alpha
-            alpha = Math.max(alpha, bestScore);
+            if (bestScore > alpha) {
+                alpha = bestScore;
+
+                // Coup entièrement cherché et meilleur que les précédents:
+                // conservé même si l'itération est interrompue ensuite
+                if (threadId == 0) {
+                    shared.reportPartial(depth, bestMove, bestScore);
+                }
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        // Itération interrompue: ses coups déjà reportés au contexte suffisent
+        if (aborted) {
+            return bestMove;
+        }
+
+        lastScore = bestScore;
+        previousBest = bestMove;
+        if (bestMove >= 0) {
+            table.store(Zobrist.searchKey(board, player), depth, boundType(bestScore, originalAlpha, beta),
+                    bestScore, bestMove);
         }
 
         return bestMove;
     }
 
-    // Algorithme minimax avec élagage alpha-beta
-    private static int minimax(Board board, int depth, int alpha, int beta, boolean isMaximizing, int player) throws TimeoutException {
-        // Vérifie limite de temps
-        if (System.currentTimeMillis() - startTime > timeLimit * 0.95) {
-            timeLimitReached = true;
-            throw new TimeoutException();
+    // Negamax PVS avec élagage alpha-beta (score du point de vue de side)
+    private int negamax(int depth, int ply, int alpha, int beta, int side) {
+        // À l'horizon, ne continue que sur les coups tactiques
+        if (depth == 0) {
+            return quiescence(ply, alpha, beta, side, QUIESCENCE_DEPTH);
+        }
+
+        // Vérifie limite de temps (et demande d'arrêt) tous les CHECK_INTERVAL noeuds
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0 && checkTime()) {
+            return ABORTED;
         }
 
-        int opponent = (player == 4) ? 2 : 4;
         int gameStatus = board.checkGameStatus();
 
-        // Vérifie fin de partie ou profondeur max
-        if (gameStatus != 0 || depth == 0) {
-            return Evaluator.evaluate(board, player);
+        // Vérifie fin de partie
+        if (gameStatus != 0) {
+            return evaluate(side);
         }
 
-        List<Move> possibleMoves = MoveGenerator.generateMoves(board);
+        // Consulte la table de transposition
+        long key = Zobrist.searchKey(board, player);
+        long entry = table.probe(key);
+        int ttMove = -1;
+        ttProbes++;
+        if (entry != 0) {
+            ttHits++;
+            ttMove = TranspositionTable.moveOf(entry);
+
+            if (TranspositionTable.depthOf(entry) >= depth) {
+                int ttScore = TranspositionTable.scoreOf(entry);
+                int bound = TranspositionTable.boundOf(entry);
+
+                if (bound == TranspositionTable.EXACT) {
+                    return ttScore;
+                } else if (bound == TranspositionTable.LOWER_BOUND) {
+                    alpha = Math.max(alpha, ttScore);
+                } else {
+                    beta = Math.min(beta, ttScore);
+                }
 
-        // Si pas de coups disponibles
-        if (possibleMoves.isEmpty()) {
-            return Evaluator.evaluate(board, player);
+                if (alpha >= beta) {
+                    return ttScore;
+                }
+            }
         }
 
-        if (isMaximizing) {
-            int bestScore = Integer.MIN_VALUE;
+        int[] moves = moveBuffers[ply];
+        int moveCount = MoveGenerator.generateMoves(board, moves);
 
-            for (Move move : possibleMoves) {
-                // Joue le coup
-                Board newBoard = new Board(board);
-                newBoard.makeMove(move.getRow(), move.getCol(), player);
+        // Si pas de coups disponibles
+        if (moveCount == 0) {
+            return evaluate(side);
+        }
 
-                // Évalue récursivement
-                int score = minimax(newBoard, depth - 1, alpha, beta, false, player);
+        // Les threads auxiliaires impairs départagent les coups à l'envers
+        if ((threadId & 1) == 1) {
+            for (int i = 0, j = moveCount - 1; i < j; i++, j--) {
+                int swap = moves[i];
+                moves[i] = moves[j];
+                moves[j] = swap;
+            }
+        }
 
-                // Met à jour meilleur score
-                bestScore = Math.max(bestScore, score);
+        // Coup de la table, coups tactiques, coups tueurs puis historique
+        orderer.order(board, moves, moveCount, side, ttMove, ply);
 
-                // Met à jour alpha
-                alpha = Math.max(alpha, bestScore);
+        interiorNodes++;
+        int opponent = (side == 4) ? 2 : 4;
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = -1;
 
-                // Élagage alpha-beta
-                if (beta <= alpha) {
-                    break;
+        for (int i = 0; i < moveCount; i++) {
+            int move = moves[i];
+
+            // Joue le coup
+            board.playMove(move, side);
+
+            // Premier coup en fenêtre complète, les suivants en fenêtre nulle,
+            // re-recherche complète si un coup suivant améliore alpha
+            int score;
+            if (i == 0) {
+                score = -negamax(depth - 1, ply + 1, -beta, -alpha, opponent);
+            } else {
+                score = -negamax(depth - 1, ply + 1, -alpha - 1, -alpha, opponent);
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, ply + 1, -beta, -alpha, opponent);
                 }
             }
+            board.unmakeMove();
 
-            return bestScore;
-        } else {
-            int bestScore = Integer.MAX_VALUE;
+            // Remonte sans rien enregistrer si la recherche est interrompue
+            if (aborted) {
+                return ABORTED;
+            }
 
-            for (Move move : possibleMoves) {
-                // Joue le coup
-                Board newBoard = new Board(board);
-                newBoard.makeMove(move.getRow(), move.getCol(), opponent);
+            // Met à jour meilleur score
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
 
-                // Évalue récursivement
-                int score = minimax(newBoard, depth - 1, alpha, beta, true, player);
+            // Met à jour alpha
+            if (bestScore > alpha) {
+                alpha = bestScore;
+            }
 
-                // Met à jour meilleur score
-                bestScore = Math.min(bestScore, score);
+            // Élagage alpha-beta
+            if (alpha >= beta) {
+                countCutoff(i);
+                orderer.recordCutoff(board, move, side, ply, depth);
+                break;
+            }
+        }
 
-                // Met à jour beta
-                beta = Math.min(beta, bestScore);
+        // Enregistre le résultat (score du point de vue du joueur au trait, inclus dans la clé)
+        table.store(key, depth, boundType(bestScore, originalAlpha, beta), bestScore, bestMove);
 
-                // Élagage alpha-beta
-                if (beta <= alpha) {
-                    break;
-                }
+        return bestScore;
+    }
+
+    // Recherche de quiescence: seulement les coups qui gagnent un plateau local
+    // (ou la partie) et ceux qui bloquent un alignement adverse, ceux qui
+    // décident d'un alignement global en tête, avec possibilité de s'arrêter
+    // sur l'évaluation statique (stand-pat)
+    private int quiescence(int ply, int alpha, int beta, int side, int remaining) {
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0 && checkTime()) {
+            return ABORTED;
+        }
+        quiescenceNodes++;
+
+        // Position calme par défaut: le joueur au trait peut s'en contenter
+        int standPat = evaluate(side);
+        if (remaining == 0 || standPat >= beta || board.checkGameStatus() != 0) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        int[] moves = moveBuffers[ply];
+        int moveCount = MoveGenerator.generateMoves(board, moves);
+
+        // Garde les coups tactiques en tête, triés par score décroissant
+        int tacticalCount = 0;
+        for (int i = 0; i < moveCount; i++) {
+            int move = moves[i];
+            int score = MoveOrderer.tacticalScore(board, move, side);
+            if (score == 0) {
+                continue;
+            }
+
+            MoveOrderer.insert(moves, tacticalScores, tacticalCount++, move, score);
+        }
+
+        int opponent = (side == 4) ? 2 : 4;
+        int bestScore = standPat;
+
+        for (int i = 0; i < tacticalCount; i++) {
+            board.playMove(moves[i], side);
+            int score = -quiescence(ply + 1, -beta, -alpha, opponent, remaining - 1);
+            board.unmakeMove();
+
+            if (aborted) {
+                return ABORTED;
             }
 
-            return bestScore;
+            if (score > bestScore) {
+                bestScore = score;
+            }
+            if (bestScore > alpha) {
+                alpha = bestScore;
+            }
+            if (alpha >= beta) {
+                break;
+            }
         }
+
+        return bestScore;
     }
 
-    // Exception pour gérer le timeout
-    private static class TimeoutException extends Exception {
-        private static final long serialVersionUID = 1L;
+    // Type de borne d'un score obtenu dans la fenêtre (alpha, beta)
+    static int boundType(int score, int alpha, int beta) {
+        if (score <= alpha) {
+            return TranspositionTable.UPPER_BOUND;
+        } else if (score >= beta) {
+            return TranspositionTable.LOWER_BOUND;
+        }
+        return TranspositionTable.EXACT;
+    }
+
+    // Évalue la feuille du point de vue de side (complète ou incrémentale selon la configuration)
+    // L'évaluation est toujours faite pour player: elle n'est pas symétrique entre les joueurs
+    private int evaluate(int side) {
+        int score;
+        if (shared.incrementalEvaluation) {
+            score = Evaluator.evaluateIncremental(board, player);
+        } else {
+            score = Evaluator.evaluate(board, player);
+        }
+        return side == player ? score : -score;
+    }
+
+    // Coupure beta au coup d'index moveIndex
+    private void countCutoff(int moveIndex) {
+        betaCutoffs++;
+        if (moveIndex == 0) {
+            firstMoveCutoffs++;
+        }
+    }
+
+    // Ajoute les compteurs de ce thread à ceux de la recherche
+    private void addCounters() {
+        shared.addCounters(nodes, quiescenceNodes, interiorNodes, betaCutoffs, firstMoveCutoffs, ttProbes, ttHits);
+    }
+
+    // Traces au journal (jamais pendant la réflexion en arrière-plan), à tester
+    // avant de construire le message
+    private boolean logging() {
+        return !shared.pondering && Log.isInfoEnabled();
+    }
+
+    // Vrai (et marque la recherche interrompue) si la recherche doit s'arrêter
+    private boolean checkTime() {
+        if (shared.stop || shared.time.hardExpired()) {
+            shared.stop = true;
+            aborted = true;
+        }
+        return aborted;
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,11 @@ public class Move {
         this.col = col;
     }
 
+    // Crée un coup depuis un index de case (ligne * 9 + colonne)
+    public static Move fromCell(int cell) {
+        return new Move(cell / 9, cell % 9);
+    }
+
     public int getRow() {
         return row;
     }
@@ -18,6 +23,11 @@ public class Move {
         return col;
     }
 
+    // Index de case (ligne * 9 + colonne)
+    public int getCell() {
+        return row * 9 + col;
+    }
+
     @Override
     public String toString() {
         return "Move(" + row + ", " + col + ")";
@@ -7,51 +7,50 @@ import java.util.List;
 public class MoveGenerator {
     // Génère tous les coups valides
     public static List<Move> generateMoves(Board board) {
-        List<Move> validMoves = new ArrayList<>();
+        int[] cells = new int[81];
+        int count = generateMoves(board, cells);
+
+        List<Move> validMoves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            validMoves.add(Move.fromCell(cells[i]));
+        }
+
+        return validMoves;
+    }
+
+    // Écrit les coups valides (cases 0-80) dans moves et retourne leur nombre
+    public static int generateMoves(Board board, int[] moves) {
         int nextLocalBoard = board.getNextLocalBoard();
-        int[][] boardState = board.getBoard();
-        int[] localBoardStatus = board.getLocalBoardStatus();
+
+        // Joueur doit jouer dans le plateau spécifié
+        if (nextLocalBoard != -1) {
+            return addLocalMoves(board, nextLocalBoard, moves, 0);
+        }
 
         // Si nextLocalBoard est -1, joueur peut jouer partout
-        if (nextLocalBoard == -1) {
-            for (int localBoard = 0; localBoard < 9; localBoard++) {
-                // Ignore plateaux fermés
-                if (localBoardStatus[localBoard] != 0) {
-                    continue;
-                }
-
-                int startRow = (localBoard / 3) * 3;
-                int startCol = (localBoard % 3) * 3;
-
-                for (int i = 0; i < 3; i++) {
-                    for (int j = 0; j < 3; j++) {
-                        int row = startRow + i;
-                        int col = startCol + j;
-
-                        if (boardState[row][col] == 0) {
-                            validMoves.add(new Move(row, col));
-                        }
-                    }
-                }
-            }
-        } else {
-            // Joueur doit jouer dans le plateau spécifié
-            int startRow = (nextLocalBoard / 3) * 3;
-            int startCol = (nextLocalBoard % 3) * 3;
-
-            for (int i = 0; i < 3; i++) {
-                for (int j = 0; j < 3; j++) {
-                    int row = startRow + i;
-                    int col = startCol + j;
-
-                    if (boardState[row][col] == 0) {
-                        validMoves.add(new Move(row, col));
-                    }
-                }
+        int[] localBoardStatus = board.getLocalBoardStatus();
+        int count = 0;
+        for (int localBoard = 0; localBoard < 9; localBoard++) {
+            // Ignore plateaux fermés
+            if (localBoardStatus[localBoard] == 0) {
+                count = addLocalMoves(board, localBoard, moves, count);
             }
         }
 
-        return validMoves;
+        return count;
+    }
+
+    // Ajoute les cases vides d'un plateau local
+    private static int addLocalMoves(Board board, int localBoard, int[] moves, int count) {
+        int[] localCells = Board.LOCAL_CELLS[localBoard];
+        int empty = board.getEmptyCells(localBoard);
+
+        while (empty != 0) {
+            moves[count++] = localCells[Integer.numberOfTrailingZeros(empty)];
+            empty &= empty - 1;
+        }
+
+        return count;
     }
 
     // Convertit un coup comme "D6" en indices ligne et colonne
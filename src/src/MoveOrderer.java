@@ -0,0 +1,138 @@
+/**
+ * Ordre des coups pour l'élagage alpha-beta
+ *
+ * Ordre: coup de la table de transposition, coups qui gagnent la partie
+ * ou un plateau local, coups qui bloquent un alignement adverse (avant
+ * les autres quand le plateau local complète ou bloque un alignement du
+ * plateau global), coups tueurs de ce niveau, puis score d'historique. Les coups qui donnent le
+ * choix libre à l'adversaire passent en dernier. Un MoveOrderer est
+ * propre à un thread de recherche.
+ */
+class MoveOrderer {
+    // Priorités (additionnées, le coup de la table passe toujours en premier)
+    private static final int WIN_GAME_SCORE = 1 << 29;
+    private static final int WIN_LOCAL_SCORE = 1 << 28;
+    private static final int BLOCK_SCORE = 1 << 27;
+    private static final int GLOBAL_LINE_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 26;
+    private static final int FREE_CHOICE_PENALTY = 1 << 25;
+    private static final int HISTORY_MAX = 1 << 24;
+
+    // Deux coups tueurs par niveau
+    private final int[][] killers;
+
+    // Historique des coupures par joueur (0: X, 1: O) et par case
+    private final int[][] history = new int[2][81];
+
+    // Scores des coups en cours de tri
+    private final int[] scores = new int[81];
+
+    MoveOrderer(int maxPly) {
+        killers = new int[maxPly + 1][2];
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = -1;
+            plyKillers[1] = -1;
+        }
+    }
+
+    // Trie les coups de side du plus prometteur au moins prometteur
+    void order(Board board, int[] moves, int count, int side, int ttMove, int ply) {
+        int[] plyKillers = killers[ply];
+        int[] sideHistory = history[side == 4 ? 0 : 1];
+
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int score;
+
+            if (move == ttMove) {
+                score = Integer.MAX_VALUE;
+            } else {
+                score = tacticalScore(board, move, side) + sideHistory[move];
+                if (move == plyKillers[0]) {
+                    score += KILLER_SCORE;
+                } else if (move == plyKillers[1]) {
+                    score += KILLER_SCORE / 2;
+                }
+                if (givesFreeChoice(board, move, side)) {
+                    score -= FREE_CHOICE_PENALTY;
+                }
+            }
+
+            insert(moves, scores, i, move, score);
+        }
+    }
+
+    // Insère move à sa place parmi les count premiers coups, triés par score
+    // décroissant (tri par insertion stable, au plus 81 coups)
+    static void insert(int[] moves, int[] scores, int count, int move, int score) {
+        int j = count;
+        while (j > 0 && scores[j - 1] < score) {
+            scores[j] = scores[j - 1];
+            moves[j] = moves[j - 1];
+            j--;
+        }
+        scores[j] = score;
+        moves[j] = move;
+    }
+
+    // Le coup a provoqué une coupure beta
+    void recordCutoff(Board board, int move, int side, int ply, int depth) {
+        int[] sideHistory = history[side == 4 ? 0 : 1];
+        sideHistory[move] += depth * depth;
+        if (sideHistory[move] > HISTORY_MAX) {
+            for (int i = 0; i < 81; i++) {
+                sideHistory[i] >>= 1;
+            }
+        }
+
+        // Seuls les coups calmes deviennent tueurs
+        if (tacticalScore(board, move, side) == 0 && killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+    }
+
+    // Gain de la partie ou d'un plateau local, ou blocage d'un alignement adverse
+    // Gagner ou bloquer un plateau local qui décide d'un alignement global
+    // (le sien ou celui de l'adversaire) passe avant les autres gains et blocages
+    static int tacticalScore(Board board, int move, int side) {
+        int localBoard = Board.CELL_LOCAL_BOARD[move];
+        int bit = 1 << Board.CELL_BIT[move];
+        int opponent = (side == 4) ? 2 : 4;
+
+        int localBit = 1 << localBoard;
+        boolean completesOwnLine = Board.WINNING[board.getWonBoards(side) | localBit];
+        boolean completesOpponentLine = Board.WINNING[board.getWonBoards(opponent) | localBit];
+
+        if (Board.WINNING[board.getPlayerCells(localBoard, side) | bit]) {
+            if (completesOwnLine) {
+                return WIN_GAME_SCORE + WIN_LOCAL_SCORE;
+            }
+            return completesOpponentLine ? WIN_LOCAL_SCORE + GLOBAL_LINE_SCORE : WIN_LOCAL_SCORE;
+        }
+
+        if (Board.WINNING[board.getPlayerCells(localBoard, opponent) | bit]) {
+            return completesOwnLine || completesOpponentLine ? BLOCK_SCORE + GLOBAL_LINE_SCORE : BLOCK_SCORE;
+        }
+
+        return 0;
+    }
+
+    // Le coup envoie l'adversaire vers un plateau fermé (choix libre)
+    private static boolean givesFreeChoice(Board board, int move, int side) {
+        int target = Board.CELL_BIT[move];
+        if (board.getLocalBoardStatus()[target] != 0) {
+            return true;
+        }
+
+        // Le coup ferme lui-même le plateau visé
+        int localBoard = Board.CELL_LOCAL_BOARD[move];
+        if (target != localBoard) {
+            return false;
+        }
+
+        int bit = 1 << target;
+        int own = board.getPlayerCells(localBoard, side) | bit;
+        return Board.WINNING[own] || (own | board.getPlayerCells(localBoard, side == 4 ? 2 : 4)) == Board.FULL_MASK;
+    }
+}
@@ -0,0 +1,108 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Livre d'ouvertures en lecture seule, projeté en mémoire
+ *
+ * Fichier: en-tête (MAGIC, VERSION, nombre d'entrées) puis des entrées de
+ * 16 octets triées par clé: clé canonique (Symmetry.canonicalKey), coup
+ * dans l'orientation canonique (case 0-80) et score pour le joueur au
+ * trait. Une recherche est une dichotomie sur le fichier projeté.
+ * Le fichier est produit par OpeningBookGenerator.
+ */
+public class OpeningBook {
+    static final int MAGIC = 0x55545442; // "UTTB"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 12;
+    static final int ENTRY_BYTES = 16;
+
+    private final MappedByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(MappedByteBuffer entries, int size) {
+        this.entries = entries;
+        this.size = size;
+    }
+
+    // Ouvre un livre; IOException si le fichier est absent ou invalide
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not an opening book: " + path);
+            }
+
+            int size = buffer.getInt(8);
+            if ((long) HEADER_BYTES + (long) size * ENTRY_BYTES != buffer.capacity()) {
+                throw new IOException("Truncated opening book: " + path);
+            }
+            return new OpeningBook(buffer, size);
+        }
+    }
+
+    // Écrit un livre (clés triées par ordre croissant)
+    static void write(Path path, long[] keys, int[] moves, int[] scores) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + keys.length * ENTRY_BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            buffer.putLong(keys[i]).putInt(moves[i]).putInt(scores[i]);
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Coup du livre pour la position (case 0-80), -1 si elle n'y est pas
+    public int lookup(Board board) {
+        int transform = Symmetry.canonicalTransform(board);
+        int index = find(Symmetry.key(board, transform));
+        if (index < 0) {
+            return -1;
+        }
+
+        // Ramène le coup canonique dans l'orientation du plateau
+        int move = Symmetry.transformCell(Symmetry.inverse(transform), entries.getInt(offset(index) + 8));
+        return board.isValidMove(move / 9, move % 9) ? move : -1;
+    }
+
+    // Score enregistré pour la position (joueur au trait), 0 si absente
+    public int score(Board board) {
+        int index = find(Symmetry.canonicalKey(board));
+        return index < 0 ? 0 : entries.getInt(offset(index) + 12);
+    }
+
+    // Dichotomie sur les clés
+    private int find(long key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleKey = entries.getLong(offset(middle));
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private static int offset(int index) {
+        return HEADER_BYTES + index * ENTRY_BYTES;
+    }
+}
@@ -0,0 +1,157 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Génère le livre d'ouvertures hors ligne
+ *
+ * Énumère les positions des premiers coups de la partie, n'en garde qu'une
+ * par classe de symétrie (représentant canonique), les cherche longuement
+ * en parallèle (un moteur mono-thread par thread) et écrit le meilleur coup
+ * de chacune dans un fichier trié lu par OpeningBook.
+ *
+ * Usage: java OpeningBookGenerator fichier [coups] [temps_ms] [-depth N] [-threads N]
+ * Exemple: java OpeningBookGenerator opening.book 3 5000
+ */
+public class OpeningBookGenerator {
+    // Positions distinctes (à une symétrie près) après 0 à plies - 1 coups
+    public static List<Board> positions(int plies) {
+        List<Board> positions = new ArrayList<>();
+        Map<Long, Board> level = new LinkedHashMap<>();
+        level.put(Symmetry.canonicalKey(new Board()), new Board());
+
+        int[] moves = new int[81];
+        for (int ply = 0; ply < plies && !level.isEmpty(); ply++) {
+            Map<Long, Board> next = new LinkedHashMap<>();
+            int player = (ply & 1) == 0 ? 4 : 2;
+
+            for (Board board : level.values()) {
+                if (board.checkGameStatus() != 0) {
+                    continue;
+                }
+                positions.add(board);
+
+                int moveCount = MoveGenerator.generateMoves(board, moves);
+                for (int i = 0; i < moveCount; i++) {
+                    Board child = new Board(board);
+                    child.playMove(moves[i], player);
+
+                    long key = Symmetry.canonicalKey(child);
+                    if (!next.containsKey(key)) {
+                        next.put(key, Symmetry.transform(child, Symmetry.canonicalTransform(child)));
+                    }
+                }
+            }
+            level = next;
+        }
+
+        return positions;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: java OpeningBookGenerator fichier [coups] [temps_ms] [-depth N] [-threads N]");
+            return;
+        }
+
+        Path path = Path.of(args[0]);
+        int plies = 2;
+        long timeMillis = 5000;
+        int depth = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int positional = 0;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("-depth")) {
+                depth = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-threads")) {
+                threads = Math.max(1, Integer.parseInt(args[++i]));
+            } else if (positional++ == 0) {
+                plies = Integer.parseInt(args[i]);
+            } else {
+                timeMillis = Long.parseLong(args[i]);
+            }
+        }
+
+        // Les traces de chaque recherche noieraient la progression
+        Log.setLevel(Log.Level.WARN);
+
+        List<Board> positions = positions(plies);
+        System.out.println(positions.size() + " positions (" + plies + " plies, " + timeMillis + " ms each, "
+                + threads + " threads)");
+
+        long[] keys = new long[positions.size()];
+        int[] moves = new int[positions.size()];
+        int[] scores = new int[positions.size()];
+        // Tout le temps de chaque position, sans la prédiction de la partie en direct
+        SearchLimits limits = new SearchLimits(timeMillis, depth, true);
+        int maxDepth = Math.max(SearchConfig.defaults().getMaxDepth(), depth);
+        AtomicInteger done = new AtomicInteger();
+        long start = System.nanoTime();
+
+        // Chaque thread a son moteur et prend une position sur threads
+        int workers = threads;
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> tasks = new ArrayList<>(workers);
+            for (int w = 0; w < workers; w++) {
+                int first = w;
+                tasks.add(executor.submit(() -> {
+                    SearchConfig defaults = SearchConfig.defaults();
+                    SearchEngine engine = new SearchEngine(new SearchConfig(maxDepth, limits.getTimeMillis(),
+                            defaults.getTableSizeMb(), defaults.getReplacement(), 1));
+                    for (int i = first; i < positions.size(); i += workers) {
+                        Board board = positions.get(i);
+                        SearchResult result = engine.search(board, Positions.sideToMove(board), limits);
+
+                        // Les positions sont déjà canoniques: le coup l'est aussi
+                        keys[i] = board.getHash();
+                        moves[i] = result.getMove().getCell();
+                        scores[i] = result.getScore();
+
+                        int count = done.incrementAndGet();
+                        if (count % 100 == 0 || count == positions.size()) {
+                            System.out.println(count + "/" + positions.size() + " positions searched");
+                        }
+                    }
+                }));
+            }
+
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Opening book task failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        // Trie les entrées par clé
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        long[] sortedKeys = new long[keys.length];
+        int[] sortedMoves = new int[keys.length];
+        int[] sortedScores = new int[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedKeys[i] = keys[order[i]];
+            sortedMoves[i] = moves[order[i]];
+            sortedScores[i] = scores[order[i]];
+        }
+
+        OpeningBook.write(path, sortedKeys, sortedMoves, sortedScores);
+        System.out.println("Wrote " + keys.length + " entries to " + path + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,138 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compte les feuilles de l'arbre de jeu jusqu'à une profondeur donnée
+ *
+ * Sert à mesurer la vitesse brute de Board/MoveGenerator et d'oracle de
+ * non-régression pour les règles (plateau imposé, plateau fermé qui donne
+ * le choix libre, fin de partie).
+ *
+ * Usage: java Perft profondeur [coups...] [-divide] [-threads N] [-nobulk]
+ * Exemple: java Perft 5 E5 E4 -divide
+ */
+public class Perft {
+    // Nombre de feuilles à depth coups de la position, player au trait
+    public static long perft(Board board, int player, int depth, boolean bulk) {
+        return count(board, player, depth, bulk, new int[depth + 1][81]);
+    }
+
+    private static long count(Board board, int player, int depth, boolean bulk, int[][] moveBuffers) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        // Partie terminée: plus aucun coup
+        if (board.checkGameStatus() != 0) {
+            return 0;
+        }
+
+        int[] moves = moveBuffers[depth];
+        int moveCount = MoveGenerator.generateMoves(board, moves);
+
+        // Comptage en bloc au dernier niveau
+        if (depth == 1 && bulk) {
+            return moveCount;
+        }
+
+        int opponent = (player == 4) ? 2 : 4;
+        long nodes = 0;
+        for (int i = 0; i < moveCount; i++) {
+            board.playMove(moves[i], player);
+            nodes += count(board, opponent, depth - 1, bulk, moveBuffers);
+            board.unmakeMove();
+        }
+
+        return nodes;
+    }
+
+    // Nombre de feuilles pour chaque coup racine, réparti sur plusieurs threads
+    public static long[] divide(Board board, int player, int depth, boolean bulk, int threads)
+            throws InterruptedException {
+        int[] moves = new int[81];
+        int moveCount = MoveGenerator.generateMoves(board, moves);
+        long[] counts = new long[moveCount];
+        if (depth == 0 || board.checkGameStatus() != 0) {
+            return counts;
+        }
+
+        int opponent = (player == 4) ? 2 : 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> tasks = new ArrayList<>(moveCount);
+            for (int i = 0; i < moveCount; i++) {
+                Board child = new Board(board);
+                child.playMove(moves[i], player);
+                tasks.add(executor.submit(() -> perft(child, opponent, depth - 1, bulk)));
+            }
+
+            for (int i = 0; i < moveCount; i++) {
+                counts[i] = tasks.get(i).get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Perft task failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        return counts;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: java Perft profondeur [coups...] [-divide] [-threads N] [-nobulk]");
+            return;
+        }
+
+        int depth = Integer.parseInt(args[0]);
+        boolean showDivide = false;
+        boolean bulk = true;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        // Joue les coups donnés depuis la position initiale (X commence)
+        Board board = new Board();
+        int player = 4;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("-divide")) {
+                showDivide = true;
+            } else if (args[i].equals("-nobulk")) {
+                bulk = false;
+            } else if (args[i].equals("-threads")) {
+                threads = Math.max(1, Integer.parseInt(args[++i]));
+            } else {
+                Move move = MoveGenerator.parseMove(args[i]);
+                if (move == null || !board.makeMove(move.getRow(), move.getCol(), player)) {
+                    System.out.println("Invalid move: " + args[i]);
+                    return;
+                }
+                player = (player == 4) ? 2 : 4;
+            }
+        }
+
+        long start = System.nanoTime();
+        long[] counts = divide(board, player, depth, bulk, threads);
+        long elapsed = System.nanoTime() - start;
+
+        int[] moves = new int[81];
+        MoveGenerator.generateMoves(board, moves);
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (showDivide) {
+                System.out.println(MoveGenerator.formatMove(Move.fromCell(moves[i])) + ": " + counts[i]);
+            }
+            total += counts[i];
+        }
+
+        // Profondeur 0: la position elle-même
+        if (depth == 0) {
+            total = 1;
+        }
+
+        System.out.println("Depth " + depth + ": " + total + " nodes in " + (elapsed / 1_000_000) + " ms ("
+                + (long) (total * 1e9 / Math.max(1, elapsed)) + " nodes/s)");
+    }
+}
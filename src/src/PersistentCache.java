@@ -0,0 +1,231 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache persistant des positions cherchées en profondeur ou résolues
+ *
+ * Fichier d'enregistrements fixes de 16 octets (clé de recherche, score,
+ * profondeur, borne, meilleur coup) ajoutés à la suite. Plusieurs
+ * processus peuvent partager le fichier: les ajouts se font sous verrou
+ * exclusif (FileLock), les lectures sous verrou partagé, par projection en
+ * mémoire des seuls enregistrements nouveaux. Ni lecture ni ajout
+ * n'attendent: si le fichier est occupé, la lecture est remise à la
+ * recherche suivante et l'ajout est abandonné (ce n'est qu'un cache).
+ * L'en-tête porte un numéro de compaction (octet 12): quand il change, le
+ * fichier a été réécrit et est relu depuis le début. Les entrées lues sont
+ * versées dans la table de transposition du moteur. Un seul
+ * PersistentCache par fichier et par processus (FileLock est par processus).
+ *
+ * Compaction (une entrée par clé, la plus profonde): java PersistentCache fichier
+ */
+public class PersistentCache implements AutoCloseable {
+    private static final int MAGIC = 0x55545443; // "UTTC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 16;
+    private static final int GENERATION_OFFSET = 12;
+
+    // Profondeur minimale d'une recherche pour être conservée
+    public static final int MIN_DEPTH = 8;
+
+    private final FileChannel channel;
+    private final ByteBuffer record = ByteBuffer.allocateDirect(RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+    private final ByteBuffer generationBuffer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+
+    // Position jusqu'où le fichier a déjà été lu, et numéro de compaction de ce fichier
+    private long readOffset = HEADER_BYTES;
+    private int generation;
+
+    public PersistentCache(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        // Écrit l'en-tête d'un nouveau fichier, vérifie celui d'un fichier existant
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        FileLock lock = channel.lock();
+        try {
+            if (channel.size() == 0) {
+                header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_BYTES).putInt(0).flip();
+                channel.write(header, 0);
+            } else {
+                channel.read(header, 0);
+            }
+        } finally {
+            lock.release();
+        }
+
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Not a search cache: " + path);
+        }
+        generation = header.getInt(GENERATION_OFFSET);
+    }
+
+    // Verse dans la table les enregistrements ajoutés depuis le dernier appel
+    // Retourne le nombre d'enregistrements lus (0 si le fichier est occupé)
+    public synchronized int loadInto(TranspositionTable table) throws IOException {
+        FileLock lock = channel.tryLock(0, Long.MAX_VALUE, true);
+        if (lock == null) {
+            return 0;
+        }
+
+        try {
+            long size = channel.size();
+
+            // Fichier compacté entre-temps par un autre processus: tout relire
+            int current = readGeneration();
+            if (current != generation || size < readOffset) {
+                generation = current;
+                readOffset = HEADER_BYTES;
+            }
+
+            // Un enregistrement incomplet (arrêt brutal) est ignoré
+            long end = readOffset + (size - readOffset) / RECORD_BYTES * RECORD_BYTES;
+            if (end == readOffset) {
+                return 0;
+            }
+
+            MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, readOffset, end - readOffset);
+            records.order(ByteOrder.LITTLE_ENDIAN);
+            int count = records.capacity() / RECORD_BYTES;
+            for (int i = 0; i < count; i++) {
+                int offset = i * RECORD_BYTES;
+                table.store(records.getLong(offset), records.get(offset + 12) & 0xFF, records.get(offset + 13),
+                        records.getInt(offset + 8), records.get(offset + 14));
+            }
+
+            readOffset = end;
+            return count;
+        } finally {
+            lock.release();
+        }
+    }
+
+    // Ajoute une entrée (move: case 0-80, -1 si aucun)
+    // Retourne faux, sans rien écrire, si le fichier est occupé
+    public synchronized boolean append(long key, int depth, int bound, int score, int move) throws IOException {
+        FileLock lock = channel.tryLock();
+        if (lock == null) {
+            return false;
+        }
+
+        record.clear();
+        record.putLong(key).putInt(score).put((byte) Math.min(depth, 255)).put((byte) bound).put((byte) move)
+                .put((byte) 0).flip();
+        try {
+            long size = channel.size();
+            long position = HEADER_BYTES + (size - HEADER_BYTES) / RECORD_BYTES * RECORD_BYTES;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            return true;
+        } finally {
+            lock.release();
+        }
+    }
+
+    // Garde une entrée par clé (la plus profonde, exacte en cas d'égalité),
+    // triée par clé; retourne le nombre d'entrées conservées
+    public synchronized int compact() throws IOException {
+        FileLock lock = channel.lock();
+        try {
+            long size = channel.size();
+            int count = (int) ((size - HEADER_BYTES) / RECORD_BYTES);
+            ByteBuffer all = ByteBuffer.allocate(count * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (all.hasRemaining()) {
+                if (channel.read(all, HEADER_BYTES + all.position()) < 0) {
+                    break;
+                }
+            }
+
+            Map<Long, Integer> best = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                long key = all.getLong(i * RECORD_BYTES);
+                Integer previous = best.get(key);
+                if (previous == null || better(all, i, previous)) {
+                    best.put(key, i);
+                }
+            }
+
+            long[] keys = new long[best.size()];
+            int index = 0;
+            for (long key : best.keySet()) {
+                keys[index++] = key;
+            }
+            Arrays.sort(keys);
+
+            ByteBuffer compacted = ByteBuffer.allocate(keys.length * RECORD_BYTES);
+            for (long key : keys) {
+                int offset = best.get(key) * RECORD_BYTES;
+                compacted.put(all.array(), offset, RECORD_BYTES);
+            }
+            compacted.flip();
+
+            long position = HEADER_BYTES;
+            while (compacted.hasRemaining()) {
+                position += channel.write(compacted, position);
+            }
+            channel.truncate(position);
+
+            // Nouveau numéro de compaction: les autres processus reliront tout
+            generation = readGeneration() + 1;
+            generationBuffer.clear();
+            generationBuffer.putInt(generation).flip();
+            channel.write(generationBuffer, GENERATION_OFFSET);
+            readOffset = HEADER_BYTES;
+            return keys.length;
+        } finally {
+            lock.release();
+        }
+    }
+
+    private int readGeneration() throws IOException {
+        generationBuffer.clear();
+        while (generationBuffer.hasRemaining()) {
+            if (channel.read(generationBuffer, GENERATION_OFFSET + generationBuffer.position()) < 0) {
+                throw new IOException("Truncated search cache header");
+            }
+        }
+        return generationBuffer.getInt(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // L'enregistrement i vaut mieux que j: plus profond, ou exact à égalité
+    private static boolean better(ByteBuffer records, int i, int j) {
+        int depthI = records.get(i * RECORD_BYTES + 12) & 0xFF;
+        int depthJ = records.get(j * RECORD_BYTES + 12) & 0xFF;
+        if (depthI != depthJ) {
+            return depthI > depthJ;
+        }
+        return records.get(i * RECORD_BYTES + 13) == TranspositionTable.EXACT;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java PersistentCache fichier");
+            return;
+        }
+
+        try (PersistentCache cache = new PersistentCache(Path.of(args[0]))) {
+            long before = (cache.channel.size() - HEADER_BYTES) / RECORD_BYTES;
+            long start = System.nanoTime();
+            int after = cache.compact();
+            System.out.println("Compacted " + before + " records to " + after + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+    }
+}
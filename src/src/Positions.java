@@ -0,0 +1,86 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Positions de référence pour les mesures de performance
+ *
+ * Les positions sont produites par des parties aléatoires à graine fixe,
+ * donc identiques d'une exécution à l'autre.
+ */
+public class Positions {
+    // Nombre de coups joués selon la phase de jeu
+    public static final int OPENING_PLIES = 4;
+    public static final int MIDDLEGAME_PLIES = 20;
+    public static final int ENDGAME_PLIES = 40;
+    public static final int SOLVER_PLIES = 56;
+
+    private static final long SEED = 20240917L;
+
+    public static List<Board> opening(int count) {
+        return generate(OPENING_PLIES, count);
+    }
+
+    public static List<Board> middlegame(int count) {
+        return generate(MIDDLEGAME_PLIES, count);
+    }
+
+    public static List<Board> endgame(int count) {
+        return generate(ENDGAME_PLIES, count);
+    }
+
+    // Fins de partie assez petites pour le solveur exact
+    public static List<Board> solvable(int count) {
+        return generate(SOLVER_PLIES, count, EndgameSolver::applies);
+    }
+
+    // Génère count positions non terminées après plies coups (X joue en premier)
+    public static List<Board> generate(int plies, int count) {
+        return generate(plies, count, board -> true);
+    }
+
+    // Comme generate, en ne gardant que les positions acceptées par filter
+    public static List<Board> generate(int plies, int count, Predicate<Board> filter) {
+        Random random = new Random(SEED + plies);
+        List<Board> positions = new ArrayList<>(count);
+        int[] moves = new int[81];
+
+        while (positions.size() < count) {
+            Board board = new Board();
+            int player = 4;
+            boolean finished = false;
+
+            for (int ply = 0; ply < plies; ply++) {
+                int moveCount = MoveGenerator.generateMoves(board, moves);
+                if (moveCount == 0) {
+                    finished = true;
+                    break;
+                }
+
+                board.playMove(moves[random.nextInt(moveCount)], player);
+                player = (player == 4) ? 2 : 4;
+
+                if (board.checkGameStatus() != 0) {
+                    finished = true;
+                    break;
+                }
+            }
+
+            if (!finished && filter.test(board)) {
+                positions.add(board);
+            }
+        }
+
+        return positions;
+    }
+
+    // Joueur au trait (X commence)
+    public static int sideToMove(Board board) {
+        int pieces = 0;
+        for (int localBoard = 0; localBoard < 9; localBoard++) {
+            pieces += Integer.bitCount(board.getPlayerCells(localBoard, 4) | board.getPlayerCells(localBoard, 2));
+        }
+        return (pieces & 1) == 0 ? 4 : 2;
+    }
+}
@@ -0,0 +1,266 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serveur arbitre local, même protocole que le serveur de jeu
+ *
+ * Les connexions sont appariées dans l'ordre d'arrivée (la première joue
+ * X). Chaque partie tourne sur son propre thread virtuel: des centaines de
+ * parties simultanées ne coûtent que leurs sockets. L'arbitre vérifie les
+ * coups avec Board et mesure le temps de réponse de chaque joueur par
+ * rapport à la limite de temps.
+ *
+ * Usage: java Referee [port] [-matches N] [-time ms] [-selfplay N]
+ * -selfplay N lance aussi 2N clients dans le même processus (N parties),
+ * sur des threads ordinaires: seules les entrées-sorties de l'arbitre
+ * tournent sur des threads virtuels.
+ */
+public class Referee {
+    // Coups invalides tolérés avant de perdre la partie
+    private static final int MAX_INVALID_MOVES = 3;
+
+    // Au-delà de HARD_TIMEOUT_FACTOR fois la limite, le joueur perd la partie
+    private static final int HARD_TIMEOUT_FACTOR = 3;
+
+    private final long timeLimitMillis;
+
+    // Résultats cumulés de toutes les parties
+    private final AtomicInteger xWins = new AtomicInteger();
+    private final AtomicInteger oWins = new AtomicInteger();
+    private final AtomicInteger draws = new AtomicInteger();
+    private final AtomicInteger forfeits = new AtomicInteger();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder lateMoves = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public Referee(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    // Un joueur connecté
+    private static class Player {
+        final Socket socket;
+        final InputStream input;
+        final OutputStream output;
+        final int side;
+
+        Player(Socket socket, int side) throws IOException {
+            this.socket = socket;
+            this.input = socket.getInputStream();
+            this.output = socket.getOutputStream();
+            this.side = side;
+        }
+
+        void send(String message) throws IOException {
+            output.write(message.getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+        }
+
+        // Lit un coup "D6" (case 0-80, -1 si illisible)
+        int readMove() throws IOException {
+            int colChar = input.read();
+            while (colChar >= 0 && (colChar < 'A' || colChar > 'Z')) {
+                colChar = input.read();
+            }
+            int rowChar = input.read();
+            if (colChar < 0 || rowChar < 0) {
+                throw new IOException("Connection closed by player");
+            }
+
+            int col = colChar - 'A';
+            int row = '9' - rowChar;
+            return (col >= 0 && col <= 8 && row >= 0 && row <= 8) ? row * 9 + col : -1;
+        }
+    }
+
+    // Joue une partie; retourne le statut final (4: X gagne, 2: O gagne, 1: nulle)
+    public int playMatch(Socket xSocket, Socket oSocket) throws IOException {
+        Player x = new Player(xSocket, 4);
+        Player o = new Player(oSocket, 2);
+        int hardTimeout = (int) Math.min(Integer.MAX_VALUE, timeLimitMillis * HARD_TIMEOUT_FACTOR);
+        xSocket.setSoTimeout(hardTimeout);
+        oSocket.setSoTimeout(hardTimeout);
+        xSocket.setTcpNoDelay(true);
+        oSocket.setTcpNoDelay(true);
+
+        Board board = new Board();
+        String boardMessage = boardString(board);
+        o.send("2" + boardMessage);
+
+        // X joue dès réception du plateau
+        long requestTime = System.nanoTime();
+        x.send("1" + boardMessage);
+
+        Player current = x;
+        Player waiting = o;
+        int invalidMoves = 0;
+        while (true) {
+            int move;
+            try {
+                move = current.readMove();
+            } catch (SocketTimeoutException e) {
+                return forfeit(current, waiting, "timeout");
+            }
+            recordLatency(System.nanoTime() - requestTime);
+
+            if (move < 0 || !board.makeMove(move / 9, move % 9, current.side)) {
+                if (++invalidMoves >= MAX_INVALID_MOVES) {
+                    return forfeit(current, waiting, "invalid moves");
+                }
+                requestTime = System.nanoTime();
+                current.send("4");
+                continue;
+            }
+            invalidMoves = 0;
+            moves.increment();
+
+            String moveString = " " + MoveGenerator.formatMove(Move.fromCell(move));
+            int status = board.checkGameStatus();
+            if (status != 0) {
+                current.send("5" + moveString);
+                waiting.send("5" + moveString);
+                recordResult(status);
+                return status;
+            }
+
+            Player next = waiting;
+            waiting = current;
+            current = next;
+            requestTime = System.nanoTime();
+            current.send("3" + moveString);
+        }
+    }
+
+    // Plateau dans l'ordre attendu par Board.initializeBoard (colonne par colonne)
+    private static String boardString(Board board) {
+        StringBuilder message = new StringBuilder(162);
+        for (int i = 0; i < 81; i++) {
+            message.append(' ').append(board.getCell(i % 9, i / 9));
+        }
+        return message.toString();
+    }
+
+    // Le joueur fautif perd la partie
+    private int forfeit(Player loser, Player winner, String reason) throws IOException {
+        forfeits.incrementAndGet();
+        Log.warn("Player " + (loser.side == 4 ? "X" : "O") + " forfeits (" + reason + ")");
+        winner.send("5 A0");
+        try {
+            loser.send("5 A0");
+        } catch (IOException e) {
+            // Le fautif est peut-être déjà déconnecté
+        }
+        recordResult(winner.side);
+        return winner.side;
+    }
+
+    private void recordLatency(long nanos) {
+        totalLatencyNanos.add(nanos);
+        maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+        if (nanos > timeLimitMillis * 1_000_000L) {
+            lateMoves.increment();
+        }
+    }
+
+    private void recordResult(int status) {
+        if (status == 4) {
+            xWins.incrementAndGet();
+        } else if (status == 2) {
+            oWins.incrementAndGet();
+        } else {
+            draws.incrementAndGet();
+        }
+    }
+
+    // Résumé des parties jouées
+    public String summary() {
+        long moveCount = Math.max(1, moves.sum());
+        return "X wins: " + xWins.get() + ", O wins: " + oWins.get() + ", draws: " + draws.get()
+                + ", forfeits: " + forfeits.get() + ", moves: " + moves.sum()
+                + ", avg latency: " + totalLatencyNanos.sum() / moveCount / 1_000_000 + " ms"
+                + ", max latency: " + maxLatencyNanos.get() / 1_000_000 + " ms"
+                + ", over " + timeLimitMillis + " ms: " + lateMoves.sum();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = 8888;
+        int matches = 0;
+        int selfPlay = 0;
+        long timeMillis = 3000;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-matches")) {
+                matches = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-time")) {
+                timeMillis = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-selfplay")) {
+                selfPlay = Integer.parseInt(args[++i]);
+            } else {
+                port = Integer.parseInt(args[i]);
+            }
+        }
+        if (matches == 0) {
+            matches = selfPlay;
+        }
+
+        Referee referee = new Referee(timeMillis);
+        ExecutorService games = Executors.newVirtualThreadPerTaskExecutor();
+
+        // Les clients cherchent sans jamais bloquer: sur des threads virtuels ils
+        // occuperaient les threads porteurs des parties et fausseraient les mesures
+        ExecutorService clients = Executors.newCachedThreadPool(task -> new Thread(task, "selfplay-client"));
+        try (ServerSocket server = new ServerSocket(port, 1024)) {
+            Log.info("Referee listening on port " + server.getLocalPort());
+
+            // Clients du même processus, un moteur mono-thread et une petite table chacun
+            for (int i = 0; i < 2 * selfPlay; i++) {
+                int serverPort = server.getLocalPort();
+                clients.submit(() -> {
+                    SearchEngine engine = new SearchEngine(new SearchConfig(12,
+                            SearchConfig.defaults().getTimeLimitMillis(), 4,
+                            TranspositionTable.Replacement.DEPTH_PREFERRED, 1));
+                    new Client("localhost", serverPort, engine).play();
+                    return null;
+                });
+            }
+
+            // Apparie les connexions deux à deux, une partie par thread virtuel
+            int started = 0;
+            AtomicInteger finished = new AtomicInteger();
+            while (matches == 0 || started < matches) {
+                Socket xSocket = server.accept();
+                Socket oSocket = server.accept();
+                int match = ++started;
+                games.submit(() -> {
+                    try (xSocket; oSocket) {
+                        int status = referee.playMatch(xSocket, oSocket);
+                        Log.info("Match " + match + ": " + (status == 4 ? "X wins" : status == 2 ? "O wins" : "draw")
+                                + " (" + finished.incrementAndGet() + " finished)");
+                    } catch (IOException e) {
+                        Log.warn("Match " + match + " aborted: " + e.getMessage());
+                    }
+                    return null;
+                });
+            }
+        } finally {
+            games.shutdown();
+            clients.shutdown();
+            games.awaitTermination(1, TimeUnit.DAYS);
+            clients.awaitTermination(1, TimeUnit.DAYS);
+        }
+
+        Log.info(referee.summary());
+        Log.flush();
+    }
+}
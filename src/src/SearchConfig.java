@@ -0,0 +1,59 @@
+/**
+ * Configuration d'un moteur de recherche
+ */
+public class SearchConfig {
+    private final int maxDepth;
+    private final long timeLimitMillis;
+    private final int tableSizeMb;
+    private final TranspositionTable.Replacement replacement;
+    private final int threads;
+    private final boolean incrementalEvaluation;
+
+    public SearchConfig(int maxDepth, long timeLimitMillis, int tableSizeMb,
+                        TranspositionTable.Replacement replacement, int threads) {
+        this(maxDepth, timeLimitMillis, tableSizeMb, replacement, threads, true);
+    }
+
+    // incrementalEvaluation: Evaluator.evaluateIncremental plutôt que Evaluator.evaluate
+    public SearchConfig(int maxDepth, long timeLimitMillis, int tableSizeMb,
+                        TranspositionTable.Replacement replacement, int threads,
+                        boolean incrementalEvaluation) {
+        this.maxDepth = maxDepth;
+        this.timeLimitMillis = timeLimitMillis;
+        this.tableSizeMb = tableSizeMb;
+        this.replacement = replacement;
+        this.threads = Math.max(1, threads);
+        this.incrementalEvaluation = incrementalEvaluation;
+    }
+
+    // Profondeur 12, 2.8 secondes, table de 32 Mo, un thread par processeur
+    public static SearchConfig defaults() {
+        return new SearchConfig(12, 2800, 32, TranspositionTable.Replacement.DEPTH_PREFERRED,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    // Temps par défaut quand les limites de recherche n'en donnent pas
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    public int getTableSizeMb() {
+        return tableSizeMb;
+    }
+
+    public TranspositionTable.Replacement getReplacement() {
+        return replacement;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public boolean isIncrementalEvaluation() {
+        return incrementalEvaluation;
+    }
+}
@@ -0,0 +1,93 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * État partagé par les threads d'une même recherche
+ */
+class SearchContext {
+    final TimeManager time;
+    final int maxDepth;
+    final boolean pondering;
+    final boolean fullTime;
+    final boolean incrementalEvaluation;
+    volatile boolean stop;
+
+    // Compteurs de tous les threads
+    private long nodes;
+    private long quiescenceNodes;
+    private long interiorNodes;
+    private long betaCutoffs;
+    private long firstMoveCutoffs;
+    private long ttProbes;
+    private long ttHits;
+
+    // Itérations complètes du thread principal
+    private final List<SearchStats.Iteration> iterations = new ArrayList<>();
+    private long lastIterationNodes;
+
+    // Résultat le plus profond (itération complète de préférence)
+    private int bestMove = -1;
+    private int bestScore;
+    private int bestDepth;
+    private boolean bestComplete;
+
+    SearchContext(TimeManager time, int maxDepth, boolean pondering, boolean fullTime,
+            boolean incrementalEvaluation) {
+        this.time = time;
+        this.maxDepth = maxDepth;
+        this.pondering = pondering;
+        this.fullTime = fullTime;
+        this.incrementalEvaluation = incrementalEvaluation;
+    }
+
+    // Un thread a terminé une itération complète
+    synchronized void report(int depth, int move, int score) {
+        if (move >= 0 && (depth > bestDepth || (depth == bestDepth && !bestComplete))) {
+            bestDepth = depth;
+            bestMove = move;
+            bestScore = score;
+            bestComplete = true;
+        }
+    }
+
+    // Un coup racine entièrement cherché améliore l'itération en cours
+    // Ne remplace jamais une itération complète de même profondeur
+    synchronized void reportPartial(int depth, int move, int score) {
+        if (move >= 0 && (depth > bestDepth || (depth == bestDepth && !bestComplete))) {
+            bestDepth = depth;
+            bestMove = move;
+            bestScore = score;
+            bestComplete = false;
+        }
+    }
+
+    // Le thread principal a terminé une itération (mainNodes: ses noeuds depuis le début)
+    synchronized void recordIteration(int depth, long timeMillis, long mainNodes, int score) {
+        iterations.add(new SearchStats.Iteration(depth, timeMillis, mainNodes - lastIterationNodes, score));
+        lastIterationNodes = mainNodes;
+    }
+
+    // Un thread a fini: ajoute ses compteurs
+    synchronized void addCounters(long nodes, long quiescenceNodes, long interiorNodes, long betaCutoffs,
+                                  long firstMoveCutoffs, long ttProbes, long ttHits) {
+        this.nodes += nodes;
+        this.quiescenceNodes += quiescenceNodes;
+        this.interiorNodes += interiorNodes;
+        this.betaCutoffs += betaCutoffs;
+        this.firstMoveCutoffs += firstMoveCutoffs;
+        this.ttProbes += ttProbes;
+        this.ttHits += ttHits;
+    }
+
+    // Résultat de la recherche
+    synchronized SearchResult toResult(List<Move> principalVariation) {
+        Move move = bestMove >= 0 ? Move.fromCell(bestMove) : null;
+        SearchStats stats = new SearchStats(nodes, quiescenceNodes, interiorNodes, betaCutoffs, firstMoveCutoffs,
+                ttProbes, ttHits, time.elapsedMillis(), iterations, principalVariation);
+        return new SearchResult(move, bestScore, bestDepth, bestComplete, stats);
+    }
+
+    synchronized int getBestMove() {
+        return bestMove;
+    }
+}
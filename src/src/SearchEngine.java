@@ -0,0 +1,293 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moteur de recherche pour Ultimate Tic-Tac-Toe
+ *
+ * Chaque moteur a sa configuration, sa table de transposition et ses
+ * statistiques. search peut être appelé depuis plusieurs threads à la
+ * fois (une partie par thread): tout l'état d'une recherche est dans son
+ * SearchContext et la table est partagée sans verrou. La réflexion en
+ * arrière-plan est propre à un moteur, donc à une partie: search
+ * l'arrête avant de chercher, un moteur qui réfléchit ne sert donc
+ * qu'une partie à la fois.
+ */
+public class SearchEngine {
+    private final SearchConfig config;
+    private final TranspositionTable table;
+
+    // Threads auxiliaires (Lazy SMP), réutilisés d'une recherche à l'autre
+    private final ExecutorService helpers;
+
+    // Écritures sur disque après la recherche, hors du temps de réflexion
+    private final ExecutorService writer;
+
+    // Statistiques cumulées
+    private final AtomicLong searchCount = new AtomicLong();
+    private final AtomicLong totalNodes = new AtomicLong();
+    private final AtomicLong totalTimeMillis = new AtomicLong();
+
+    // Sortie des statistiques en lignes JSON (null: désactivée)
+    private volatile PrintStream statsOutput;
+
+    // Cache persistant partagé entre parties et processus (null: désactivé)
+    private volatile PersistentCache persistentCache;
+
+    // Réflexion en arrière-plan en cours
+    private Thread ponderThread;
+    private SearchContext ponderContext;
+
+    public SearchEngine(SearchConfig config) {
+        this.config = config;
+        this.table = new TranspositionTable(config.getTableSizeMb(), config.getReplacement());
+        this.helpers = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "search-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SearchEngine() {
+        this(SearchConfig.defaults());
+    }
+
+    // Recherche avec le temps par défaut de la configuration
+    public SearchResult search(Board board, int player) {
+        return search(board, player, SearchLimits.time(config.getTimeLimitMillis()));
+    }
+
+    // Trouve le meilleur coup pour player
+    public SearchResult search(Board board, int player, SearchLimits limits) {
+        // La réflexion partage la table et vieillirait ses entrées: on l'arrête d'abord
+        stopPondering();
+
+        int maxDepth = config.getMaxDepth();
+        if (limits.getMaxDepth() > 0) {
+            maxDepth = Math.min(maxDepth, limits.getMaxDepth());
+        }
+
+        // Lecture du cache avant de démarrer l'horloge
+        PersistentCache cache = persistentCache;
+        loadPersistentCache(cache);
+
+        SearchContext context = new SearchContext(new TimeManager(limits.getTimeMillis()), maxDepth, false,
+                limits.isFullTime(), config.isIncrementalEvaluation());
+
+        SearchResult result = run(board, player, context);
+        savePersistentCache(cache, board, player, result);
+
+        searchCount.incrementAndGet();
+        totalNodes.addAndGet(result.getNodes());
+        totalTimeMillis.addAndGet(result.getTimeMillis());
+
+        // Les statistiques s'écrivent en arrière-plan, après l'envoi du coup
+        PrintStream output = statsOutput;
+        if (output != null) {
+            writer.execute(() -> output.println(result.getStats().toJson()));
+        }
+
+        return result;
+    }
+
+    // Écrit les statistiques de chaque recherche en une ligne JSON (null pour arrêter)
+    public void setStatsOutput(PrintStream output) {
+        this.statsOutput = output;
+    }
+
+    // Conserve les recherches profondes dans un cache persistant (null pour arrêter)
+    // Le contenu existant est lu tout de suite, hors du temps d'une recherche
+    public void setPersistentCache(PersistentCache cache) {
+        loadPersistentCache(cache);
+        this.persistentCache = cache;
+    }
+
+    // Verse dans la table les entrées ajoutées au cache depuis la dernière recherche
+    // (sans attendre: un fichier occupé sera lu à la recherche suivante)
+    private void loadPersistentCache(PersistentCache cache) {
+        if (cache == null) {
+            return;
+        }
+
+        try {
+            cache.loadInto(table);
+        } catch (IOException e) {
+            Log.warn("Persistent cache read failed: " + e.getMessage());
+        }
+    }
+
+    // Ajoute au cache le résultat d'une itération complète assez profonde
+    // Les positions du solveur (scores de mat, profondeur en cases vides)
+    // n'ont pas l'échelle de la recherche heuristique: elles sont ignorées
+    private void savePersistentCache(PersistentCache cache, Board board, int player, SearchResult result) {
+        if (cache == null || !result.isComplete() || result.getDepth() < PersistentCache.MIN_DEPTH
+                || EndgameSolver.applies(board)) {
+            return;
+        }
+
+        // Écriture sur disque en arrière-plan (abandonnée si le fichier est occupé)
+        long key = Zobrist.searchKey(board, player);
+        writer.execute(() -> {
+            try {
+                if (!cache.append(key, result.getDepth(), TranspositionTable.EXACT, result.getScore(),
+                        result.getMove().getCell())) {
+                    Log.debug("Persistent cache busy, result not saved");
+                }
+            } catch (IOException e) {
+                Log.warn("Persistent cache write failed: " + e.getMessage());
+            }
+        });
+    }
+
+    // Réfléchit pendant le tour adverse sur la réponse adverse la plus probable
+    public synchronized void startPondering(Board board, int player) {
+        stopPondering();
+
+        Board ponderBoard = new Board(board);
+        if (ponderBoard.checkGameStatus() != 0) {
+            return;
+        }
+
+        // Réponse prévue: meilleur coup adverse connu, sinon le premier coup valide
+        int[] moves = new int[81];
+        int moveCount = MoveGenerator.generateMoves(ponderBoard, moves);
+        if (moveCount == 0) {
+            return;
+        }
+
+        int predicted = TranspositionTable.moveOf(table.probe(Zobrist.searchKey(ponderBoard, player)));
+        if (predicted < 0 || !ponderBoard.isValidMove(predicted / 9, predicted % 9)) {
+            predicted = moves[0];
+        }
+
+        int opponent = (player == 4) ? 2 : 4;
+        ponderBoard.playMove(predicted, opponent);
+        if (ponderBoard.checkGameStatus() != 0) {
+            return;
+        }
+
+        // Sans limite de temps: s'arrête quand notre tour arrive
+        SearchContext context = new SearchContext(TimeManager.unlimited(), config.getMaxDepth(), true, false,
+                config.isIncrementalEvaluation());
+        ponderContext = context;
+        ponderThread = new Thread(() -> run(ponderBoard, player, context), "search-ponder");
+        ponderThread.setDaemon(true);
+        ponderThread.start();
+    }
+
+    // Arrête la réflexion en arrière-plan
+    public synchronized void stopPondering() {
+        if (ponderThread == null) {
+            return;
+        }
+
+        ponderContext.stop = true;
+        try {
+            ponderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        ponderThread = null;
+        ponderContext = null;
+    }
+
+    // Oublie tout ce que la table a appris (nouvelle partie)
+    public void clear() {
+        table.clear();
+    }
+
+    // Lance la recherche sur tous les threads
+    private SearchResult run(Board board, int player, SearchContext context) {
+        table.newSearch();
+
+        // Peu de cases libres: résolution exacte, recherche heuristique si le temps manque
+        if (EndgameSolver.applies(board) && new EndgameSolver(board, context, table).solve(player)) {
+            return context.toResult(principalVariation(board, player, context.getBestMove(), context.maxDepth));
+        }
+
+        // Lance les threads auxiliaires
+        Future<?>[] tasks = new Future<?>[config.getThreads() - 1];
+        for (int i = 0; i < tasks.length; i++) {
+            MinimaxAlphaBeta helper = new MinimaxAlphaBeta(board, player, i + 1, context, table);
+            tasks[i] = helpers.submit(helper::iterativeDeepening);
+        }
+
+        new MinimaxAlphaBeta(board, player, 0, context, table).searchMain();
+
+        // Arrête les threads auxiliaires
+        context.stop = true;
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search helper failed", e.getCause());
+            }
+        }
+
+        // Aucun coup racine cherché à temps: premier coup légal plutôt que rien
+        if (context.getBestMove() < 0) {
+            int[] moves = new int[81];
+            if (MoveGenerator.generateMoves(board, moves) > 0) {
+                context.reportPartial(0, moves[0], 0);
+            }
+        }
+
+        // Résultat complet le plus profond, tous threads confondus
+        return context.toResult(principalVariation(board, player, context.getBestMove(), context.maxDepth));
+    }
+
+    // Variation principale: meilleur coup racine puis meilleurs coups de la table
+    private List<Move> principalVariation(Board root, int player, int firstMove, int maxLength) {
+        List<Move> variation = new ArrayList<>();
+        if (firstMove < 0) {
+            return variation;
+        }
+
+        Board board = new Board(root);
+        int side = player;
+        int move = firstMove;
+        while (move >= 0 && variation.size() < maxLength && board.isValidMove(move / 9, move % 9)) {
+            variation.add(Move.fromCell(move));
+            board.playMove(move, side);
+            side = (side == 4) ? 2 : 4;
+
+            if (board.checkGameStatus() != 0) {
+                break;
+            }
+            move = TranspositionTable.moveOf(table.probe(Zobrist.searchKey(board, player)));
+        }
+
+        return variation;
+    }
+
+    public SearchConfig getConfig() {
+        return config;
+    }
+
+    // Statistiques cumulées
+    public long getSearchCount() {
+        return searchCount.get();
+    }
+
+    public long getTotalNodes() {
+        return totalNodes.get();
+    }
+
+    public long getTotalTimeMillis() {
+        return totalTimeMillis.get();
+    }
+}
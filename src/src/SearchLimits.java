@@ -0,0 +1,38 @@
+/**
+ * Limites d'une recherche: temps et profondeur
+ */
+public class SearchLimits {
+    private final long timeMillis;
+    private final int maxDepth;
+    private final boolean fullTime;
+
+    // maxDepth <= 0: profondeur maximale de la configuration du moteur
+    public SearchLimits(long timeMillis, int maxDepth) {
+        this(timeMillis, maxDepth, false);
+    }
+
+    // fullTime: approfondit jusqu'à la limite de temps sans prédire la durée
+    // de l'itération suivante (recherches hors ligne)
+    public SearchLimits(long timeMillis, int maxDepth, boolean fullTime) {
+        this.timeMillis = timeMillis;
+        this.maxDepth = maxDepth;
+        this.fullTime = fullTime;
+    }
+
+    // Limite de temps seulement
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(timeMillis, 0);
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public boolean isFullTime() {
+        return fullTime;
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Résultat d'une recherche
+ */
+public class SearchResult {
+    private final Move move;
+    private final int score;
+    private final int depth;
+    private final boolean complete;
+    private final SearchStats stats;
+
+    public SearchResult(Move move, int score, int depth, boolean complete, SearchStats stats) {
+        this.move = move;
+        this.score = score;
+        this.depth = depth;
+        this.complete = complete;
+        this.stats = stats;
+    }
+
+    // Meilleur coup (null seulement si la position n'a aucun coup)
+    public Move getMove() {
+        return move;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    // Profondeur du coup retenu
+    public int getDepth() {
+        return depth;
+    }
+
+    // Vrai si le coup vient d'une itération terminée, faux s'il vient
+    // d'une itération interrompue (ou du premier coup légal par défaut)
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public long getNodes() {
+        return stats.getNodes();
+    }
+
+    public long getTimeMillis() {
+        return stats.getTimeMillis();
+    }
+
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult(" + move + ", score=" + score + ", depth=" + depth
+                + (complete ? "" : " (partial)")
+                + ", nodes=" + getNodes() + ", time=" + getTimeMillis() + "ms)";
+    }
+}
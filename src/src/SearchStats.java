@@ -0,0 +1,156 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Statistiques d'une recherche: noeuds, coupures, table de transposition,
+ * temps par itération et variation principale
+ */
+public class SearchStats {
+    // Une itération complète du thread principal
+    public static class Iteration {
+        private final int depth;
+        private final long timeMillis;
+        private final long nodes;
+        private final int score;
+
+        Iteration(int depth, long timeMillis, long nodes, int score) {
+            this.depth = depth;
+            this.timeMillis = timeMillis;
+            this.nodes = nodes;
+            this.score = score;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+
+        // Noeuds visités par le thread principal pendant cette itération
+        public long getNodes() {
+            return nodes;
+        }
+
+        public int getScore() {
+            return score;
+        }
+    }
+
+    private final long nodes;
+    private final long quiescenceNodes;
+    private final long interiorNodes;
+    private final long betaCutoffs;
+    private final long firstMoveCutoffs;
+    private final long ttProbes;
+    private final long ttHits;
+    private final long timeMillis;
+    private final List<Iteration> iterations;
+    private final List<Move> principalVariation;
+
+    SearchStats(long nodes, long quiescenceNodes, long interiorNodes, long betaCutoffs, long firstMoveCutoffs,
+                long ttProbes, long ttHits, long timeMillis, List<Iteration> iterations,
+                List<Move> principalVariation) {
+        this.nodes = nodes;
+        this.quiescenceNodes = quiescenceNodes;
+        this.interiorNodes = interiorNodes;
+        this.betaCutoffs = betaCutoffs;
+        this.firstMoveCutoffs = firstMoveCutoffs;
+        this.ttProbes = ttProbes;
+        this.ttHits = ttHits;
+        this.timeMillis = timeMillis;
+        this.iterations = Collections.unmodifiableList(new ArrayList<>(iterations));
+        this.principalVariation = Collections.unmodifiableList(new ArrayList<>(principalVariation));
+    }
+
+    // Noeuds visités, tous threads confondus
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getQuiescenceNodes() {
+        return quiescenceNodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getNodesPerSecond() {
+        return nodes * 1000 / Math.max(1, timeMillis);
+    }
+
+    // Part des noeuds internes coupés par alpha-beta
+    public double getCutoffRate() {
+        return interiorNodes == 0 ? 0 : (double) betaCutoffs / interiorNodes;
+    }
+
+    // Part des coupures obtenues dès le premier coup (qualité de l'ordre des coups)
+    public double getFirstMoveCutoffRate() {
+        return betaCutoffs == 0 ? 0 : (double) firstMoveCutoffs / betaCutoffs;
+    }
+
+    public double getTtHitRate() {
+        return ttProbes == 0 ? 0 : (double) ttHits / ttProbes;
+    }
+
+    // Facteur de branchement effectif: rapport des noeuds des deux dernières itérations
+    public double getEffectiveBranchingFactor() {
+        int size = iterations.size();
+        if (size < 2 || iterations.get(size - 2).getNodes() == 0) {
+            return 0;
+        }
+        return (double) iterations.get(size - 1).getNodes() / iterations.get(size - 2).getNodes();
+    }
+
+    public List<Iteration> getIterations() {
+        return iterations;
+    }
+
+    public List<Move> getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    // Une ligne JSON
+    public String toJson() {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"nodes\":").append(nodes)
+                .append(",\"qnodes\":").append(quiescenceNodes)
+                .append(",\"timeMs\":").append(timeMillis)
+                .append(",\"nps\":").append(getNodesPerSecond())
+                .append(",\"cutoffRate\":").append(round(getCutoffRate()))
+                .append(",\"firstMoveCutoffRate\":").append(round(getFirstMoveCutoffRate()))
+                .append(",\"ttHitRate\":").append(round(getTtHitRate()))
+                .append(",\"ebf\":").append(round(getEffectiveBranchingFactor()))
+                .append(",\"iterations\":[");
+
+        for (int i = 0; i < iterations.size(); i++) {
+            Iteration iteration = iterations.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"depth\":").append(iteration.getDepth())
+                    .append(",\"timeMs\":").append(iteration.getTimeMillis())
+                    .append(",\"nodes\":").append(iteration.getNodes())
+                    .append(",\"score\":").append(iteration.getScore())
+                    .append('}');
+        }
+
+        json.append("],\"pv\":[");
+        for (int i = 0; i < principalVariation.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(MoveGenerator.formatMove(principalVariation.get(i))).append('"');
+        }
+        json.append("]}");
+
+        return json.toString();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
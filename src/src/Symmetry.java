@@ -0,0 +1,148 @@
+/**
+ * Symétries du plateau (groupe diédral du carré, 8 transformations)
+ *
+ * Une transformation du plateau 9x9 s'applique en même temps au plateau
+ * global et à chaque plateau local, ainsi qu'au plateau imposé. Deux
+ * positions symétriques ont la même valeur et des meilleurs coups
+ * correspondants: le représentant canonique (clé Zobrist minimale parmi
+ * les 8 images) permet de partager les entrées d'une table, d'un livre
+ * d'ouvertures ou d'un cache entre positions symétriques.
+ *
+ * L'Evaluator n'est pas exactement symétrique (quelques points d'écart sur
+ * certains plateaux locaux): seuls les résultats exacts (solveur, livre)
+ * sont strictement identiques d'une image à l'autre.
+ */
+public class Symmetry {
+    // Transformations: identité, rotations de 90, 180 et 270 degrés,
+    // symétries horizontale et verticale, diagonale et anti-diagonale
+    public static final int IDENTITY = 0;
+    public static final int COUNT = 8;
+
+    // Transformation inverse de chaque transformation
+    private static final int[] INVERSE = {0, 3, 2, 1, 4, 5, 6, 7};
+
+    // Image de chaque case (0-80) et de chaque plateau local (0-8)
+    private static final int[][] CELLS = new int[COUNT][81];
+    private static final int[][] LOCAL_BOARDS = new int[COUNT][9];
+
+    static {
+        for (int transform = 0; transform < COUNT; transform++) {
+            for (int cell = 0; cell < 81; cell++) {
+                CELLS[transform][cell] = map(transform, cell / 9, cell % 9, 8);
+            }
+
+            for (int localBoard = 0; localBoard < 9; localBoard++) {
+                int image = map(transform, localBoard / 3, localBoard % 3, 2);
+                LOCAL_BOARDS[transform][localBoard] = (image / 9) * 3 + image % 9;
+            }
+        }
+    }
+
+    // Image de (row, col) dans un carré de côté last + 1, en index row * 9 + col
+    private static int map(int transform, int row, int col, int last) {
+        int newRow;
+        int newCol;
+        switch (transform) {
+            case 1 -> { newRow = col; newCol = last - row; }
+            case 2 -> { newRow = last - row; newCol = last - col; }
+            case 3 -> { newRow = last - col; newCol = row; }
+            case 4 -> { newRow = row; newCol = last - col; }
+            case 5 -> { newRow = last - row; newCol = col; }
+            case 6 -> { newRow = col; newCol = row; }
+            case 7 -> { newRow = last - col; newCol = last - row; }
+            default -> { newRow = row; newCol = col; }
+        }
+        return newRow * 9 + newCol;
+    }
+
+    // Image d'une case par une transformation
+    public static int transformCell(int transform, int cell) {
+        return CELLS[transform][cell];
+    }
+
+    // Image d'un plateau local (-1, choix libre, reste -1)
+    public static int transformLocalBoard(int transform, int localBoard) {
+        return localBoard < 0 ? localBoard : LOCAL_BOARDS[transform][localBoard];
+    }
+
+    public static int inverse(int transform) {
+        return INVERSE[transform];
+    }
+
+    // Clé Zobrist de l'image du plateau (égale à getHash() pour l'identité)
+    public static long key(Board board, int transform) {
+        long[] keys = new long[COUNT];
+        keys(board, keys);
+        return keys[transform];
+    }
+
+    // Transformation qui mène au représentant canonique (la plus petite en cas d'égalité)
+    public static int canonicalTransform(Board board) {
+        long[] keys = new long[COUNT];
+        keys(board, keys);
+
+        int best = IDENTITY;
+        for (int transform = 1; transform < COUNT; transform++) {
+            if (keys[transform] < keys[best]) {
+                best = transform;
+            }
+        }
+        return best;
+    }
+
+    // Clé du représentant canonique
+    public static long canonicalKey(Board board) {
+        long[] keys = new long[COUNT];
+        keys(board, keys);
+
+        long best = keys[IDENTITY];
+        for (int transform = 1; transform < COUNT; transform++) {
+            best = Math.min(best, keys[transform]);
+        }
+        return best;
+    }
+
+    // Copie transformée du plateau (sans historique de coups)
+    public static Board transform(Board board, int transform) {
+        int[][] cells = new int[9][9];
+        for (int cell = 0; cell < 81; cell++) {
+            int image = CELLS[transform][cell];
+            cells[image / 9][image % 9] = board.getCell(cell / 9, cell % 9);
+        }
+        return new Board(cells, transformLocalBoard(transform, board.getNextLocalBoard()));
+    }
+
+    // Les 8 clés en un seul passage sur les pièces
+    private static void keys(Board board, long[] keys) {
+        int pieces = 0;
+        for (int transform = 0; transform < COUNT; transform++) {
+            keys[transform] = Zobrist.NEXT_BOARD[transformLocalBoard(transform, board.getNextLocalBoard()) + 1];
+        }
+
+        for (int localBoard = 0; localBoard < 9; localBoard++) {
+            pieces += addPieces(keys, board.getPlayerCells(localBoard, 4), localBoard, Zobrist.X_CELLS);
+            pieces += addPieces(keys, board.getPlayerCells(localBoard, 2), localBoard, Zobrist.O_CELLS);
+        }
+
+        // Le trait ne dépend que du nombre de pièces
+        if ((pieces & 1) != 0) {
+            for (int transform = 0; transform < COUNT; transform++) {
+                keys[transform] ^= Zobrist.SIDE_TO_MOVE;
+            }
+        }
+    }
+
+    private static int addPieces(long[] keys, int cells, int localBoard, long[] cellKeys) {
+        int count = 0;
+        while (cells != 0) {
+            int cell = Board.LOCAL_CELLS[localBoard][Integer.numberOfTrailingZeros(cells)];
+            cells &= cells - 1;
+            count++;
+
+            for (int transform = 0; transform < COUNT; transform++) {
+                keys[transform] ^= cellKeys[CELLS[transform][cell]];
+            }
+        }
+        return count;
+    }
+}
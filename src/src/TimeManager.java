@@ -0,0 +1,69 @@
+/**
+ * Gestion du temps d'une recherche
+ *
+ * Les échéances sont calculées une seule fois, en System.nanoTime(), au
+ * début de la recherche. La limite dure interrompt l'itération en cours;
+ * c'est la prédiction de durée de l'itération suivante, comparée au temps
+ * restant avant la limite dure, qui décide d'approfondir. La limite souple
+ * n'est qu'un garde-fou proche de la limite dure: au-delà, plus aucune
+ * itération ne commence, même si la prédiction le permettrait.
+ */
+class TimeManager {
+    // Part du temps au-delà de laquelle on ne commence plus d'itération (par défaut)
+    static final double DEFAULT_SOFT_FRACTION = 0.9;
+
+    // Marge de sécurité de la limite dure (réseau, ramasse-miettes)
+    private static final double HARD_FRACTION = 0.95;
+
+    private final long startNanos;
+    private final long limitNanos;
+    private final long softNanos;
+    private final long hardNanos;
+
+    TimeManager(long timeLimitMillis) {
+        this(timeLimitMillis, DEFAULT_SOFT_FRACTION);
+    }
+
+    TimeManager(long timeLimitMillis, double softFraction) {
+        this.startNanos = System.nanoTime();
+
+        // Durées relatives au départ: pas de débordement même sans limite
+        this.limitNanos = timeLimitMillis >= Long.MAX_VALUE / 1_000_000L
+                ? Long.MAX_VALUE : timeLimitMillis * 1_000_000L;
+        this.softNanos = (long) (limitNanos * Math.min(softFraction, HARD_FRACTION));
+        this.hardNanos = (long) (limitNanos * HARD_FRACTION);
+    }
+
+    // Sans limite de temps (réflexion en arrière-plan)
+    static TimeManager unlimited() {
+        return new TimeManager(Long.MAX_VALUE);
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    long elapsedMillis() {
+        return elapsedNanos() / 1_000_000L;
+    }
+
+    // Temps restant avant la limite dure
+    long remainingNanos() {
+        return hardNanos - elapsedNanos();
+    }
+
+    // Plus la peine de commencer une itération
+    boolean softExpired() {
+        return elapsedNanos() > softNanos;
+    }
+
+    // Une part donnée du temps est écoulée
+    boolean expired(double fraction) {
+        return elapsedNanos() > (long) (limitNanos * fraction);
+    }
+
+    // La recherche en cours doit s'arrêter
+    boolean hardExpired() {
+        return elapsedNanos() > hardNanos;
+    }
+}
@@ -0,0 +1,135 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Transport entre le client et le serveur de jeu
+ *
+ * Un SocketChannel bloquant sans délai de Nagle, des tampons directs
+ * réutilisés et un analyseur qui lit chaque message octet par octet: un
+ * message coupé en plusieurs segments TCP (ou plusieurs messages dans un
+ * même segment) est lu correctement, sans allocation par message.
+ *
+ * Messages du serveur: '1' ou '2' suivi du plateau (81 valeurs séparées par
+ * des espaces), '3' ou '5' suivi du dernier coup (ex. " D6", "A0" si aucun),
+ * '4' sans contenu.
+ */
+public class Transport implements AutoCloseable {
+    // Commandes du serveur
+    public static final char START_X = '1';
+    public static final char START_O = '2';
+    public static final char YOUR_TURN = '3';
+    public static final char INVALID_MOVE = '4';
+    public static final char GAME_OVER = '5';
+
+    private final SocketChannel channel;
+    private final ByteBuffer input = ByteBuffer.allocateDirect(4096);
+    private final ByteBuffer output = ByteBuffer.allocateDirect(16);
+
+    // Contenu du dernier message lu
+    private final int[] boardValues = new int[81];
+    private int lastMove = -1;
+
+    public Transport(String host, int port) throws IOException {
+        channel = SocketChannel.open();
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        channel.connect(new InetSocketAddress(host, port));
+        input.flip();
+    }
+
+    // Lit le prochain message et retourne sa commande
+    // Le contenu est ensuite disponible par getBoardValues ou getLastMove
+    public char readCommand() throws IOException {
+        // Ignore les séparateurs laissés par le message précédent
+        int command = nextByte();
+        while (command < START_X || command > GAME_OVER) {
+            command = nextByte();
+        }
+
+        if (command == START_X || command == START_O) {
+            readBoard();
+        } else if (command == YOUR_TURN || command == GAME_OVER) {
+            readMove();
+        }
+
+        return (char) command;
+    }
+
+    // Plateau du dernier message '1' ou '2' (ordre du serveur, voir Board.initializeBoard)
+    public int[] getBoardValues() {
+        return boardValues;
+    }
+
+    // Dernier coup du dernier message '3' ou '5' (case 0-80, -1 si aucun)
+    public int getLastMove() {
+        return lastMove;
+    }
+
+    // Envoie un coup (case 0-80) au format "D6"
+    public void sendMove(int cell) throws IOException {
+        output.clear();
+        output.put((byte) ('A' + cell % 9));
+        output.put((byte) ('9' - cell / 9));
+        write();
+    }
+
+    // Accuse réception de la fin de partie
+    public void sendAcknowledgement() throws IOException {
+        output.clear();
+        output.put((byte) '\n');
+        write();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // 81 valeurs d'un chiffre (0, 2 ou 4) séparées par des espaces
+    // Un chiffre suffit: aucune attente d'un séparateur après la dernière
+    private void readBoard() throws IOException {
+        for (int i = 0; i < boardValues.length; i++) {
+            int c = nextByte();
+            while (c < '0' || c > '9') {
+                c = nextByte();
+            }
+            boardValues[i] = c - '0';
+        }
+    }
+
+    // Une lettre (colonne A-I) suivie d'un chiffre (ligne 1-9, 0 si aucun coup)
+    private void readMove() throws IOException {
+        int colChar = nextByte();
+        while (colChar < 'A' || colChar > 'Z') {
+            colChar = nextByte();
+        }
+        int rowChar = nextByte();
+
+        int col = colChar - 'A';
+        int row = '9' - rowChar;
+        lastMove = (col >= 0 && col <= 8 && row >= 0 && row <= 8) ? row * 9 + col : -1;
+    }
+
+    // Octet suivant, en lisant le réseau quand le tampon est vide
+    private int nextByte() throws IOException {
+        while (!input.hasRemaining()) {
+            input.clear();
+            int read = channel.read(input);
+            input.flip();
+            if (read < 0) {
+                throw new EOFException("Connection closed by server");
+            }
+        }
+        return input.get() & 0xFF;
+    }
+
+    private void write() throws IOException {
+        output.flip();
+        while (output.hasRemaining()) {
+            channel.write(output);
+        }
+    }
+}
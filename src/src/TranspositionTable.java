@@ -0,0 +1,126 @@
+import java.util.Arrays;
+
+/**
+ * Table de transposition de taille fixe, préallouée en tableaux primitifs
+ *
+ * Chaque entrée tient dans deux long: la clé Zobrist et les données
+ * compactées (score, profondeur, borne, meilleur coup, génération).
+ * La table est partagée sans verrou entre les threads de recherche: la
+ * clé est stockée XOR les données, donc une entrée déchirée par deux
+ * écritures concurrentes ne correspond plus à aucune clé et est ignorée.
+ */
+public class TranspositionTable {
+    // Types de borne
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+
+    // Politique de remplacement
+    public enum Replacement {
+        ALWAYS,          // Toujours écraser
+        DEPTH_PREFERRED  // Garder l'entrée plus profonde de la recherche courante
+    }
+
+    // Taille d'une entrée en octets
+    private static final int ENTRY_BYTES = 16;
+
+    // Disposition des données compactées
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int MOVE_SHIFT = 42;
+    private static final int AGE_SHIFT = 49;
+    private static final long VALID = 1L << 63;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private final Replacement replacement;
+    private volatile int age;
+
+    public TranspositionTable(int sizeMb, Replacement replacement) {
+        // Plus grande puissance de 2 d'entrées qui tient dans la taille demandée
+        long entries = Math.max(1, (long) sizeMb * 1024 * 1024 / ENTRY_BYTES);
+        int capacity = Integer.highestOneBit((int) Math.min(entries, 1 << 30));
+
+        this.keys = new long[capacity];
+        this.data = new long[capacity];
+        this.mask = capacity - 1;
+        this.replacement = replacement;
+    }
+
+    // Nouvelle recherche: les anciennes entrées deviennent remplaçables
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    // Vide la table
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+    }
+
+    // Retourne les données compactées de la position, ou 0 si absente
+    public long probe(long key) {
+        int index = (int) key & mask;
+        long entry = data[index];
+        if ((keys[index] ^ entry) == key) {
+            return entry;
+        }
+        return 0;
+    }
+
+    // Enregistre le résultat d'une recherche (move: case 0-80, -1 si aucun)
+    public void store(long key, int depth, int bound, int score, int move) {
+        int index = (int) key & mask;
+        long existing = data[index];
+        boolean sameKey = existing != 0 && (keys[index] ^ existing) == key;
+
+        if (replacement == Replacement.DEPTH_PREFERRED
+                && existing != 0
+                && !sameKey
+                && ageOf(existing) == age
+                && depthOf(existing) > depth) {
+            return;
+        }
+
+        // Conserve le meilleur coup connu si la nouvelle entrée n'en a pas
+        if (move < 0 && sameKey) {
+            move = moveOf(existing);
+        }
+
+        long entry = VALID
+                | ((long) age << AGE_SHIFT)
+                | ((long) (move + 1) << MOVE_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) depth << DEPTH_SHIFT)
+                | (score & 0xFFFFFFFFL);
+        keys[index] = key ^ entry;
+        data[index] = entry;
+    }
+
+    // Nombre d'entrées
+    public int capacity() {
+        return keys.length;
+    }
+
+    // Accesseurs sur les données compactées
+    public static int scoreOf(long entry) {
+        return (int) entry;
+    }
+
+    public static int depthOf(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int boundOf(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 0x3;
+    }
+
+    public static int moveOf(long entry) {
+        return ((int) (entry >>> MOVE_SHIFT) & 0x7F) - 1;
+    }
+
+    private static int ageOf(long entry) {
+        return (int) (entry >>> AGE_SHIFT) & 0xFF;
+    }
+}
@@ -0,0 +1,56 @@
+import java.util.Random;
+
+/**
+ * Clés de hachage Zobrist pour Ultimate Tic-Tac-Toe
+ */
+public class Zobrist {
+    // Graine fixe: les clés doivent être identiques d'une exécution à l'autre
+    private static final long SEED = 0x5EED_7AC7_0E5L;
+
+    // Une clé par case et par joueur
+    static final long[] X_CELLS = new long[81];
+    static final long[] O_CELLS = new long[81];
+
+    // Une clé par plateau imposé (index = nextLocalBoard + 1)
+    static final long[] NEXT_BOARD = new long[10];
+
+    // Trait à O
+    static final long SIDE_TO_MOVE;
+
+    // Recherche faite du point de vue de O (l'évaluation n'est pas symétrique)
+    static final long PERSPECTIVE;
+
+    // Entrées du solveur de fin de partie (scores exacts, indépendants du joueur)
+    static final long SOLVER;
+
+    static {
+        Random random = new Random(SEED);
+        for (int i = 0; i < 81; i++) {
+            X_CELLS[i] = random.nextLong();
+            O_CELLS[i] = random.nextLong();
+        }
+
+        for (int i = 0; i < 10; i++) {
+            NEXT_BOARD[i] = random.nextLong();
+        }
+
+        SIDE_TO_MOVE = random.nextLong();
+        PERSPECTIVE = random.nextLong();
+        SOLVER = random.nextLong();
+    }
+
+    // Clé d'une pièce sur une case
+    static long cellKey(int cell, int player) {
+        return player == 4 ? X_CELLS[cell] : O_CELLS[cell];
+    }
+
+    // Clé de recherche: position et joueur pour qui on évalue
+    public static long searchKey(Board board, int player) {
+        return player == 2 ? board.getHash() ^ PERSPECTIVE : board.getHash();
+    }
+
+    // Clé du solveur de fin de partie
+    public static long solverKey(Board board) {
+        return board.getHash() ^ SOLVER;
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Vérifie les coups tactiques qui décident d'un alignement global
+ *
+ * O a gagné les plateaux 0 et 1 et menace de gagner le plateau 2 (donc la
+ * partie). X, au trait avec le choix libre, peut gagner le plateau 2 (ce
+ * qui bloque l'alignement d'O) ou gagner le plateau 5; ce second gain
+ * envoie O dans le plateau 2, où O gagne la partie. Le seul coup qui
+ * décide est donc le gain du plateau 2.
+ *
+ * Usage: java TacticalMovesTest (code de sortie 1 en cas d'échec)
+ */
+public class TacticalMovesTest {
+    // Gain du plateau 2 (bloque l'alignement global d'O) et gain simple du plateau 5
+    private static final int WIN_BLOCKING_LINE = cell(2, 2);
+    private static final int PLAIN_LOCAL_WIN = cell(5, 2);
+
+    // Blocage d'O dans le plateau 2 (qui compléterait son alignement global)
+    private static final int BLOCK_ON_LINE = cell(2, 5);
+
+    private static int failures;
+
+    public static void main(String[] args) {
+        Board board = position();
+
+        check(MoveOrderer.tacticalScore(board, WIN_BLOCKING_LINE, 4)
+                        > MoveOrderer.tacticalScore(board, PLAIN_LOCAL_WIN, 4),
+                "winning a board that blocks a global line ranks above a plain local win");
+        check(MoveOrderer.tacticalScore(board, BLOCK_ON_LINE, 4)
+                        > MoveOrderer.tacticalScore(board, PLAIN_LOCAL_WIN, 4),
+                "blocking a board that decides a global line ranks above a plain local win");
+
+        // Le gain simple perd: O gagne la partie au coup suivant
+        Board after = new Board(board);
+        after.playMove(PLAIN_LOCAL_WIN, 4);
+        check(after.getNextLocalBoard() == 2, "the plain local win sends O to board 2");
+        after.playMove(BLOCK_ON_LINE, 2);
+        check(after.checkGameStatus() == 2, "O then wins the game in board 2");
+
+        // Profondeur 1: la quiescence doit voir la réponse d'O et garder le bon coup
+        SearchEngine engine = new SearchEngine(new SearchConfig(1, 10_000, 4,
+                TranspositionTable.Replacement.DEPTH_PREFERRED, 1));
+        SearchResult result = engine.search(board, 4, new SearchLimits(10_000, 1));
+        check(result.getMove().getCell() == WIN_BLOCKING_LINE,
+                "depth 1 search plays the board 2 win, got " + MoveGenerator.formatMove(result.getMove()));
+
+        if (failures > 0) {
+            System.out.println(failures + " check(s) failed");
+            System.exit(1);
+        }
+        System.out.println("All checks passed");
+    }
+
+    // X au trait, choix libre
+    private static Board position() {
+        int[][] cells = new int[9][9];
+
+        // O gagne les plateaux 0 et 1 (X y a joué ailleurs)
+        for (int localBoard = 0; localBoard < 2; localBoard++) {
+            set(cells, localBoard, 0, 2);
+            set(cells, localBoard, 1, 2);
+            set(cells, localBoard, 2, 2);
+            set(cells, localBoard, 3, 4);
+            set(cells, localBoard, 4, 4);
+        }
+
+        // Plateau 2: X menace la ligne du haut, O la ligne du milieu
+        set(cells, 2, 0, 4);
+        set(cells, 2, 1, 4);
+        set(cells, 2, 3, 2);
+        set(cells, 2, 4, 2);
+
+        // Plateau 5: X menace la ligne du haut
+        set(cells, 5, 0, 4);
+        set(cells, 5, 1, 4);
+
+        return new Board(cells, -1);
+    }
+
+    // Case globale (0-80) de la case bit du plateau local localBoard
+    private static int cell(int localBoard, int bit) {
+        return ((localBoard / 3) * 3 + bit / 3) * 9 + (localBoard % 3) * 3 + bit % 3;
+    }
+
+    private static void set(int[][] cells, int localBoard, int bit, int player) {
+        int cell = cell(localBoard, bit);
+        cells[cell / 9][cell % 9] = player;
+    }
+
+    private static void check(boolean condition, String description) {
+        System.out.println((condition ? "ok    " : "FAIL  ") + description);
+        if (!condition) {
+            failures++;
+        }
+    }
+}